@@ -0,0 +1,114 @@
+package anno.orm;
+
+import anno.orm.annos.Constraints;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * 单个列的元数据，由 TableMeta 在第一次使用时构建：
+ * 列名（未指定时为大写的字段名）、SQL 类型、JDBC 类型、约束以及对应的 Field 与列注解
+ */
+public final class ColumnMeta {
+    private final Field field;
+    private final Annotation annotation;
+    private final String name;
+    private final String sqlType;
+    // java.sql.Types 中的类型，写入 null 时使用
+    private final int jdbcType;
+    private final Constraints constraints;
+    private final String definition;
+
+    ColumnMeta(Field field, Annotation annotation, String name, String sqlType, int jdbcType, Constraints constraints,
+               String definition) {
+        this.field = field;
+        this.annotation = annotation;
+        this.name = name;
+        this.sqlType = sqlType;
+        this.jdbcType = jdbcType;
+        this.constraints = constraints;
+        this.definition = definition;
+    }
+
+    /**
+     * 对应的字段，已设置为可访问
+     */
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * 字段上的列注解，比如 @SQLString，可以读取列类型特有的属性
+     */
+    public Annotation getAnnotation() {
+        return annotation;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * SQL 类型，比如 INT、VARCHAR(30)、DECIMAL(19, 2)
+     */
+    public String getSqlType() {
+        return sqlType;
+    }
+
+    public int getJdbcType() {
+        return jdbcType;
+    }
+
+    public Constraints getConstraints() {
+        return constraints;
+    }
+
+    public boolean isPrimaryKey() {
+        return constraints.primaryKey();
+    }
+
+    public boolean isAllowNull() {
+        return constraints.allowNull();
+    }
+
+    public boolean isUnique() {
+        return constraints.unique();
+    }
+
+    /**
+     * CREATE TABLE 中的列定义，比如 REFERENCE VARCHAR(30) PRIMARY KEY
+     */
+    public String getDefinition() {
+        return definition;
+    }
+
+    /**
+     * 读取实体对象上该列的值
+     */
+    public Object getValue(Object entity) {
+        try {
+            return field.get(entity);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("can not read field " + field, e);
+        }
+    }
+
+    /**
+     * 将实体对象上该列的值绑定到 PreparedStatement 的第 index 个参数，null 按 JDBC 类型写入
+     */
+    public void bind(PreparedStatement ps, int index, Object entity) throws SQLException {
+        Object value = getValue(entity);
+        if (value == null) {
+            ps.setNull(index, jdbcType);
+        } else {
+            ps.setObject(index, value, jdbcType);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return definition;
+    }
+}
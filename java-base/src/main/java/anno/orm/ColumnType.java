@@ -0,0 +1,32 @@
+package anno.orm;
+
+import anno.orm.annos.Constraints;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * 一种列注解对应的列类型，通过 ColumnTypes.register 注册后，TableMeta 就能识别带有该注解的字段：
+ *   1. name / constraints 读取注解上的列名与约束，列名为空时使用大写的字段名；
+ *   2. appendSqlType 把 SQL 类型追加到调用方传入的 StringBuilder，比如 VARCHAR(30)，建表时多个列共用一个 StringBuilder；
+ *   3. jdbcType 为 java.sql.Types 中的类型，绑定参数与写入 null 时使用。
+ *
+ * 使用例子：
+ * ColumnTypes.register(SQLBoolean.class, new ColumnType<SQLBoolean>() {
+ *     public String name(SQLBoolean ann) { return ann.name(); }
+ *     public Constraints constraints(SQLBoolean ann) { return ann.constraints(); }
+ *     public void appendSqlType(SQLBoolean ann, StringBuilder sql) { sql.append("BOOLEAN"); }
+ *     public int jdbcType(SQLBoolean ann) { return Types.BOOLEAN; }
+ * });
+ *
+ * 实现需要是无状态、线程安全的。
+ */
+public interface ColumnType<A extends Annotation> {
+
+    String name(A ann);
+
+    Constraints constraints(A ann);
+
+    void appendSqlType(A ann, StringBuilder sql);
+
+    int jdbcType(A ann);
+}
@@ -0,0 +1,207 @@
+package anno.orm;
+
+import anno.orm.annos.Constraints;
+import anno.orm.annos.SQLDecimal;
+import anno.orm.annos.SQLInteger;
+import anno.orm.annos.SQLLong;
+import anno.orm.annos.SQLString;
+import anno.orm.annos.SQLTimestamp;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.Types;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 列注解 -> ColumnType 的注册表，TableMeta 通过注解的类型查找列类型，不再逐个 instanceof：
+ *   1. 内置 @SQLInteger、@SQLLong、@SQLString、@SQLDecimal、@SQLTimestamp；
+ *   2. 新的列注解通过 register 注册，不需要修改 TableMeta；
+ *   3. TableMeta 按类缓存，注册需要在实体类第一次使用之前完成，之后注册的类型对已经构建的 TableMeta 不生效。
+ */
+public final class ColumnTypes {
+    private static final Map<Class<? extends Annotation>, ColumnType<?>> TYPES = new ConcurrentHashMap<>();
+
+    static {
+        register(SQLInteger.class, new ColumnType<SQLInteger>() {
+            @Override
+            public String name(SQLInteger ann) {
+                return ann.name();
+            }
+
+            @Override
+            public Constraints constraints(SQLInteger ann) {
+                return ann.constraints();
+            }
+
+            @Override
+            public void appendSqlType(SQLInteger ann, StringBuilder sql) {
+                sql.append("INT");
+            }
+
+            @Override
+            public int jdbcType(SQLInteger ann) {
+                return Types.INTEGER;
+            }
+        });
+        register(SQLLong.class, new ColumnType<SQLLong>() {
+            @Override
+            public String name(SQLLong ann) {
+                return ann.name();
+            }
+
+            @Override
+            public Constraints constraints(SQLLong ann) {
+                return ann.constraints();
+            }
+
+            @Override
+            public void appendSqlType(SQLLong ann, StringBuilder sql) {
+                sql.append("BIGINT");
+            }
+
+            @Override
+            public int jdbcType(SQLLong ann) {
+                return Types.BIGINT;
+            }
+        });
+        register(SQLString.class, new ColumnType<SQLString>() {
+            @Override
+            public String name(SQLString ann) {
+                return ann.name();
+            }
+
+            @Override
+            public Constraints constraints(SQLString ann) {
+                return ann.constraints();
+            }
+
+            @Override
+            public void appendSqlType(SQLString ann, StringBuilder sql) {
+                sql.append("VARCHAR(").append(ann.value()).append(')');
+            }
+
+            @Override
+            public int jdbcType(SQLString ann) {
+                return Types.VARCHAR;
+            }
+        });
+        register(SQLDecimal.class, new ColumnType<SQLDecimal>() {
+            @Override
+            public String name(SQLDecimal ann) {
+                return ann.name();
+            }
+
+            @Override
+            public Constraints constraints(SQLDecimal ann) {
+                return ann.constraints();
+            }
+
+            @Override
+            public void appendSqlType(SQLDecimal ann, StringBuilder sql) {
+                if (ann.precision() < 1 || ann.scale() < 0 || ann.scale() > ann.precision()) {
+                    throw new IllegalArgumentException("invalid @SQLDecimal(precision = " + ann.precision()
+                            + ", scale = " + ann.scale() + ")");
+                }
+                sql.append("DECIMAL(").append(ann.precision()).append(", ").append(ann.scale()).append(')');
+            }
+
+            @Override
+            public int jdbcType(SQLDecimal ann) {
+                return Types.DECIMAL;
+            }
+        });
+        register(SQLTimestamp.class, new ColumnType<SQLTimestamp>() {
+            @Override
+            public String name(SQLTimestamp ann) {
+                return ann.name();
+            }
+
+            @Override
+            public Constraints constraints(SQLTimestamp ann) {
+                return ann.constraints();
+            }
+
+            @Override
+            public void appendSqlType(SQLTimestamp ann, StringBuilder sql) {
+                sql.append("TIMESTAMP");
+            }
+
+            @Override
+            public int jdbcType(SQLTimestamp ann) {
+                return Types.TIMESTAMP;
+            }
+        });
+    }
+
+    private ColumnTypes() {
+    }
+
+    /**
+     * 注册列注解对应的列类型
+     * @throws IllegalArgumentException 注解已经注册过
+     */
+    public static <A extends Annotation> void register(Class<A> annotationType, ColumnType<A> type) {
+        Objects.requireNonNull(annotationType, "annotationType");
+        Objects.requireNonNull(type, "type");
+        if (TYPES.putIfAbsent(annotationType, type) != null) {
+            throw new IllegalArgumentException("column type already registered for @" + annotationType.getSimpleName());
+        }
+    }
+
+    /**
+     * 获取列注解对应的列类型，没有注册时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public static <A extends Annotation> ColumnType<A> get(Class<A> annotationType) {
+        return (ColumnType<A>) TYPES.get(annotationType);
+    }
+
+    public static boolean isColumnAnnotation(Class<? extends Annotation> annotationType) {
+        return TYPES.containsKey(annotationType);
+    }
+
+    /**
+     * 在字段的所有注解中查找已注册的列注解，没有时返回 null；sql 用于拼接 SQL 类型与列定义，由调用方复用
+     * @throws IllegalArgumentException 字段上有多个列注解
+     */
+    static ColumnMeta toColumn(Field field, StringBuilder sql) {
+        Annotation columnAnn = null;
+        ColumnType<?> columnType = null;
+        for (Annotation ann : field.getDeclaredAnnotations()) {
+            ColumnType<?> type = TYPES.get(ann.annotationType());
+            if (type == null) {
+                continue;
+            }
+            if (columnType != null) {
+                throw new IllegalArgumentException("field " + field + " has both @"
+                        + columnAnn.annotationType().getSimpleName() + " and @" + ann.annotationType().getSimpleName());
+            }
+            columnAnn = ann;
+            columnType = type;
+        }
+        return columnType == null ? null : newColumn(field, columnAnn, columnType, sql);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A extends Annotation> ColumnMeta newColumn(Field field, Annotation ann, ColumnType<A> type,
+                                                               StringBuilder sql) {
+        if (!Modifier.isPublic(field.getModifiers()) || !Modifier.isPublic(field.getDeclaringClass().getModifiers())) {
+            field.setAccessible(true);
+        }
+        A a = (A) ann;
+        String name = type.name(a);
+        String colName = name.length() < 1 ? field.getName().toUpperCase() : name; // 如果 name 未指定，就使用字段名
+        Constraints constraints = type.constraints(a);
+
+        sql.setLength(0);
+        type.appendSqlType(a, sql);
+        String sqlType = sql.toString();
+        sql.setLength(0);
+        sql.append(colName).append(' ').append(sqlType);
+        ORMUtil.appendConstraints(sql, constraints);
+        return new ColumnMeta(field, ann, colName, sqlType, type.jdbcType(a), constraints, sql.toString());
+    }
+}
@@ -0,0 +1,1097 @@
+package anno.orm;
+
+import anno.orm.annos.SQLInteger;
+import anno.orm.annos.SQLLong;
+import anno.orm.annos.SQLString;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+/**
+ * 按列存储的内存表，由实体类的 TableMeta 驱动，用于把整张表加载到内存中做统计分析：
+ *   1. @SQLInteger / @SQLLong 列保存在 int[] / long[] 中，null 记录在位图里，不再为每行创建 Integer / Long；
+ *   2. @SQLString 列按 @SQLString(value) 的长度定长存储，全部字符都不超过 0xFF 时每个字符占一个字节，
+ *      出现其他字符后整列转换为每个字符两个字节，每行另有两个字节记录长度；
+ *   3. 通过 offHeap 创建时，列数据保存在堆外的 ByteBuffer 中，长度与 null 位图仍在堆上，每行只占几个字节；
+ *   4. 单列主键上维护开放寻址的哈希索引，按主键查找不需要扫描；
+ *   5. 过滤以 BitSet 表示命中的行，扫描直接遍历原始数组，每 64 行合并为一个 long，循环体内没有分支。
+ *
+ * 使用例子：
+ * ColumnarTable<Member> table = ColumnarTable.onHeap(Member.class, 100_000);
+ * EntityMapper.of(Member.class).query(conn, "SELECT * FROM MEMBER", 1000, table::add);
+ * BitSet adults = table.getIntColumn("AGE").between(18, 60);
+ * adults.and(table.getStringColumn("LASTNAME").startsWith("Z"));
+ * List<Member> result = table.getAll(adults);
+ *
+ * 其他类型的列（比如 @SQLDecimal、@SQLTimestamp）暂不支持，创建时抛出 IllegalArgumentException。
+ * 只支持追加；写入不是线程安全的，加载完成后可以在多个线程中并发读取和扫描。
+ */
+public final class ColumnarTable<T> {
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * 创建列数据保存在堆上数组中的内存表
+     * @throws IllegalArgumentException 类没有被 @DBTable 注解，或包含不支持的列
+     */
+    public static <T> ColumnarTable<T> onHeap(Class<T> entityClass) {
+        return new ColumnarTable<>(entityClass, DEFAULT_CAPACITY, false);
+    }
+
+    public static <T> ColumnarTable<T> onHeap(Class<T> entityClass, int initialCapacity) {
+        return new ColumnarTable<>(entityClass, initialCapacity, false);
+    }
+
+    /**
+     * 创建列数据保存在堆外 ByteBuffer 中的内存表，容量不足时重新分配并复制
+     */
+    public static <T> ColumnarTable<T> offHeap(Class<T> entityClass, int initialCapacity) {
+        return new ColumnarTable<>(entityClass, initialCapacity, true);
+    }
+
+    private final Class<T> type;
+    private final TableMeta meta;
+    private final boolean offHeap;
+    private final Column[] columns;
+    private final Map<String, Column> columnsByName;
+    // 单列主键，没有主键或者是联合主键时为 null
+    private final Column keyColumn;
+    private final PrimaryKeyIndex index;
+    private final Constructor<T> constructor;
+    private int capacity;
+    private int size;
+
+    private ColumnarTable(Class<T> type, int initialCapacity, boolean offHeap) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("initialCapacity must be positive: " + initialCapacity);
+        }
+        this.type = type;
+        this.meta = TableMeta.of(type);
+        this.offHeap = offHeap;
+        this.capacity = initialCapacity;
+
+        List<ColumnMeta> metas = meta.getColumns();
+        this.columns = new Column[metas.size()];
+        Map<String, Column> byName = new LinkedHashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = newColumn(metas.get(i));
+            byName.put(columns[i].getName(), columns[i]);
+        }
+        this.columnsByName = Collections.unmodifiableMap(byName);
+
+        List<ColumnMeta> keys = meta.getPrimaryKeys();
+        this.keyColumn = keys.size() == 1 ? byName.get(keys.get(0).getName()) : null;
+        this.index = keyColumn == null ? null : new PrimaryKeyIndex(keyColumn, initialCapacity);
+        try {
+            this.constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("class " + type.getName() + " has no no-arg constructor", e);
+        }
+    }
+
+    /**
+     * 只支持内置的 @SQLInteger / @SQLLong / @SQLString 列，通过 ColumnTypes 注册的类型即使映射到相同的 JDBC 类型也不支持
+     */
+    private Column newColumn(ColumnMeta column) {
+        Annotation annotation = column.getAnnotation();
+        switch (column.getJdbcType()) {
+            case Types.INTEGER:
+                if (annotation instanceof SQLInteger) {
+                    return new IntColumn(this, column, capacity);
+                }
+                break;
+            case Types.BIGINT:
+                if (annotation instanceof SQLLong) {
+                    return new LongColumn(this, column, capacity);
+                }
+                break;
+            case Types.VARCHAR:
+                if (annotation instanceof SQLString) {
+                    return new StringColumn(this, column, capacity, ((SQLString) annotation).value());
+                }
+                break;
+            default:
+                break;
+        }
+        throw new IllegalArgumentException("unsupported column " + column + " in table " + meta.getTableName());
+    }
+
+    public TableMeta getTableMeta() {
+        return meta;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 追加一行，返回行号；写入前先检查所有列，失败时不会留下写了一半的行
+     * @throws IllegalArgumentException 主键为 null 或重复，字符串超过 @SQLString 指定的长度
+     */
+    public int add(T entity) {
+        Objects.requireNonNull(entity, "entity");
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = columns[i].meta.getValue(entity);
+            columns[i].check(values[i]);
+        }
+        int keyHash = 0;
+        if (index != null) {
+            Object key = keyColumn.meta.getValue(entity);
+            if (key == null) {
+                throw new IllegalArgumentException("primary key " + keyColumn.getName() + " is null");
+            }
+            keyHash = keyColumn.keyHash(key);
+            if (index.find(key, keyHash) >= 0) {
+                throw new IllegalArgumentException("duplicate primary key " + key + " in table " + meta.getTableName());
+            }
+        }
+
+        if (size == capacity) {
+            grow();
+        }
+        int row = size;
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].write(row, values[i]);
+        }
+        size++;
+        if (index != null) {
+            index.insert(row, keyHash);
+        }
+        return row;
+    }
+
+    public void addAll(Iterable<? extends T> entities) {
+        for (T entity : entities) {
+            add(entity);
+        }
+    }
+
+    private void grow() {
+        int newCapacity = capacity + Math.max(capacity >> 1, 16);
+        if (newCapacity < 0) {
+            throw new IllegalStateException("table " + meta.getTableName() + " is full");
+        }
+        for (Column column : columns) {
+            column.grow(newCapacity);
+        }
+        capacity = newCapacity;
+    }
+
+    /**
+     * 通过行号重新创建实体对象，字符串每次都会重新创建
+     */
+    public T get(int row) {
+        Objects.checkIndex(row, size);
+        T entity;
+        try {
+            entity = constructor.newInstance();
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("can not instantiate " + type.getName(), e);
+        }
+        for (Column column : columns) {
+            Object value = column.read(row);
+            Field field = column.meta.getField();
+            if (value == null && field.getType().isPrimitive()) {
+                continue;
+            }
+            try {
+                field.set(entity, value);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("can not write field " + field, e);
+            }
+        }
+        return entity;
+    }
+
+    /**
+     * 按行号顺序重新创建 rows 中的所有实体对象
+     */
+    public List<T> getAll(BitSet rows) {
+        List<T> result = new ArrayList<>(rows.cardinality());
+        for (int row = rows.nextSetBit(0); row >= 0 && row < size; row = rows.nextSetBit(row + 1)) {
+            result.add(get(row));
+        }
+        return result;
+    }
+
+    /**
+     * 通过主键索引查找行号，不存在时返回 -1
+     * @throws IllegalStateException 表没有单列主键
+     */
+    public int findRow(Object key) {
+        if (index == null) {
+            throw new IllegalStateException("table " + meta.getTableName() + " has no single-column primary key");
+        }
+        if (key == null) {
+            return -1;
+        }
+        return index.find(key, keyColumn.keyHash(key));
+    }
+
+    /**
+     * 通过主键查找实体，不存在时返回 null
+     */
+    public T findByKey(Object key) {
+        int row = findRow(key);
+        return row < 0 ? null : get(row);
+    }
+
+    /**
+     * 通过列名获取列，不存在时返回 null
+     */
+    public Column getColumn(String name) {
+        return columnsByName.get(name);
+    }
+
+    public List<Column> getColumns() {
+        return Collections.unmodifiableList(Arrays.asList(columns));
+    }
+
+    /**
+     * @throws IllegalArgumentException 列不存在或不是 @SQLInteger 列
+     */
+    public IntColumn getIntColumn(String name) {
+        Column column = columnsByName.get(name);
+        if (!(column instanceof IntColumn)) {
+            throw new IllegalArgumentException("no integer column " + name + " in table " + meta.getTableName());
+        }
+        return (IntColumn) column;
+    }
+
+    /**
+     * @throws IllegalArgumentException 列不存在或不是 @SQLLong 列
+     */
+    public LongColumn getLongColumn(String name) {
+        Column column = columnsByName.get(name);
+        if (!(column instanceof LongColumn)) {
+            throw new IllegalArgumentException("no long column " + name + " in table " + meta.getTableName());
+        }
+        return (LongColumn) column;
+    }
+
+    /**
+     * @throws IllegalArgumentException 列不存在或不是 @SQLString 列
+     */
+    public StringColumn getStringColumn(String name) {
+        Column column = columnsByName.get(name);
+        if (!(column instanceof StringColumn)) {
+            throw new IllegalArgumentException("no string column " + name + " in table " + meta.getTableName());
+        }
+        return (StringColumn) column;
+    }
+
+    /**
+     * 已分配的列数据、位图与索引占用的字节数（按容量计算，包括堆外部分）
+     */
+    public long memoryUsage() {
+        long bytes = index == null ? 0 : index.memoryUsage();
+        for (Column column : columns) {
+            bytes += column.memoryUsage();
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarTable{" + meta.getTableName() + ", rows=" + size + "/" + capacity
+                + (offHeap ? ", offHeap" : "") + ", bytes=" + memoryUsage() + "}";
+    }
+
+    private static int words(int rows) {
+        return (rows + 63) >>> 6;
+    }
+
+    private static ByteBuffer allocateDirect(long bytes) {
+        return ByteBuffer.allocateDirect(Math.toIntExact(bytes)).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * 整数列的主键是否恰好是 [min, max] 范围内的整数，比如 5L、5.0 都对应 5；
+     * 4294967301L、5.5 这样截断后才相等的值不对应任何行
+     */
+    private static boolean isIntegralKey(Number key, long min, long max) {
+        long value = key.longValue();
+        if (value < min || value > max) {
+            return false;
+        }
+        if (key instanceof Integer || key instanceof Long || key instanceof Short || key instanceof Byte
+                || key instanceof AtomicInteger || key instanceof AtomicLong) {
+            return true;
+        }
+        if (key instanceof BigInteger) {
+            return ((BigInteger) key).bitLength() < 64;
+        }
+        if (key instanceof BigDecimal) {
+            return ((BigDecimal) key).compareTo(BigDecimal.valueOf(value)) == 0;
+        }
+        // Double、Float 以及其它 Number：转换为 double 后与整数值相等（超出 double 精度的 long 视为不匹配）
+        double d = key.doubleValue();
+        return d == value && d != 0x1p63;
+    }
+
+    private static ByteBuffer copyOf(ByteBuffer buffer, long bytes) {
+        ByteBuffer copy = allocateDirect(bytes);
+        ByteBuffer src = buffer.duplicate();
+        src.clear();
+        copy.put(src).clear();
+        return copy;
+    }
+
+    /**
+     * 单个列的存储，null 统一记录在按 64 行一组的位图中
+     */
+    public abstract static class Column {
+        final ColumnarTable<?> table;
+        final ColumnMeta meta;
+        long[] nulls;
+
+        Column(ColumnarTable<?> table, ColumnMeta meta, int capacity) {
+            this.table = table;
+            this.meta = meta;
+            this.nulls = new long[words(capacity)];
+        }
+
+        public ColumnMeta getMeta() {
+            return meta;
+        }
+
+        public String getName() {
+            return meta.getName();
+        }
+
+        public boolean isNull(int row) {
+            Objects.checkIndex(row, table.size);
+            return (nulls[row >>> 6] & (1L << row)) != 0;
+        }
+
+        /**
+         * 值为 null 的行
+         */
+        public BitSet nulls() {
+            return BitSet.valueOf(Arrays.copyOf(nulls, words(table.size)));
+        }
+
+        /**
+         * 值不为 null 的行数
+         */
+        public int count() {
+            int nullCount = 0;
+            for (int i = 0, n = words(table.size); i < n; i++) {
+                nullCount += Long.bitCount(nulls[i]);
+            }
+            return table.size - nullCount;
+        }
+
+        /**
+         * 读取一行的值，null 时返回 null
+         */
+        public abstract Object getValue(int row);
+
+        /**
+         * 检查值是否可以写入，在写入任何列之前调用
+         */
+        void check(Object value) {
+        }
+
+        void setNull(int row, boolean isNull) {
+            if (isNull) {
+                nulls[row >>> 6] |= 1L << row;
+            } else {
+                nulls[row >>> 6] &= ~(1L << row);
+            }
+        }
+
+        /**
+         * 去掉 null 行并转换为 BitSet，words 的长度为 words(size)
+         */
+        BitSet toRows(long[] words) {
+            for (int i = 0; i < words.length; i++) {
+                words[i] &= ~nulls[i];
+            }
+            int tail = table.size & 63;
+            if (tail != 0) {
+                words[words.length - 1] &= (1L << tail) - 1; // 超出 size 的部分不是有效行
+            }
+            return BitSet.valueOf(words);
+        }
+
+        Object read(int row) {
+            return (nulls[row >>> 6] & (1L << row)) != 0 ? null : getValue(row);
+        }
+
+        abstract void write(int row, Object value);
+
+        abstract void grow(int newCapacity);
+
+        abstract int keyHash(Object key);
+
+        abstract boolean keyEquals(int row, Object key);
+
+        long memoryUsage() {
+            return nulls.length * 8L;
+        }
+
+        @Override
+        public String toString() {
+            return meta.toString();
+        }
+    }
+
+    /**
+     * @SQLInteger 列，值保存在 int[] 或堆外 ByteBuffer 中，null 行的值为 0
+     */
+    public static final class IntColumn extends Column {
+        private int[] values;
+        private ByteBuffer buffer;
+
+        IntColumn(ColumnarTable<?> table, ColumnMeta meta, int capacity) {
+            super(table, meta, capacity);
+            if (table.offHeap) {
+                buffer = allocateDirect(capacity * 4L);
+            } else {
+                values = new int[capacity];
+            }
+        }
+
+        /**
+         * 读取一行的值，null 行返回 0
+         */
+        public int get(int row) {
+            Objects.checkIndex(row, table.size);
+            return values != null ? values[row] : buffer.getInt(row << 2);
+        }
+
+        @Override
+        public Object getValue(int row) {
+            return get(row);
+        }
+
+        /**
+         * 所有行之和，null 行按 0 计算
+         */
+        public long sum() {
+            int n = table.size;
+            long sum = 0;
+            if (values != null) {
+                int[] a = values;
+                for (int row = 0; row < n; row++) {
+                    sum += a[row];
+                }
+            } else {
+                ByteBuffer b = buffer;
+                for (int row = 0; row < n; row++) {
+                    sum += b.getInt(row << 2);
+                }
+            }
+            return sum;
+        }
+
+        /**
+         * rows 中所有行之和
+         */
+        public long sum(BitSet rows) {
+            long sum = 0;
+            for (int row = rows.nextSetBit(0); row >= 0 && row < table.size; row = rows.nextSetBit(row + 1)) {
+                sum += values != null ? values[row] : buffer.getInt(row << 2);
+            }
+            return sum;
+        }
+
+        /**
+         * 值在 [min, max] 之间的行，不包括 null 行
+         */
+        public BitSet between(int min, int max) {
+            int n = table.size;
+            long[] words = new long[words(n)];
+            if (min > max) {
+                return BitSet.valueOf(words);
+            }
+            long range = (long) max - min;
+            if (values != null) {
+                int[] a = values;
+                for (int row = 0; row < n; row++) {
+                    long d = (long) a[row] - min;
+                    // d < 0 或 d > range 时符号位为 1
+                    words[row >>> 6] |= (~(d | (range - d)) >>> 63) << row;
+                }
+            } else {
+                ByteBuffer b = buffer;
+                for (int row = 0; row < n; row++) {
+                    long d = (long) b.getInt(row << 2) - min;
+                    words[row >>> 6] |= (~(d | (range - d)) >>> 63) << row;
+                }
+            }
+            return toRows(words);
+        }
+
+        public BitSet equalTo(int value) {
+            return between(value, value);
+        }
+
+        /**
+         * 通过任意条件过滤，不包括 null 行
+         */
+        public BitSet filter(IntPredicate predicate) {
+            int n = table.size;
+            long[] words = new long[words(n)];
+            for (int row = 0; row < n; row++) {
+                if (predicate.test(values != null ? values[row] : buffer.getInt(row << 2))) {
+                    words[row >>> 6] |= 1L << row;
+                }
+            }
+            return toRows(words);
+        }
+
+        @Override
+        void write(int row, Object value) {
+            setNull(row, value == null);
+            int v = value == null ? 0 : ((Number) value).intValue();
+            if (values != null) {
+                values[row] = v;
+            } else {
+                buffer.putInt(row << 2, v);
+            }
+        }
+
+        @Override
+        void grow(int newCapacity) {
+            nulls = Arrays.copyOf(nulls, words(newCapacity));
+            if (values != null) {
+                values = Arrays.copyOf(values, newCapacity);
+            } else {
+                buffer = copyOf(buffer, newCapacity * 4L);
+            }
+        }
+
+        @Override
+        int keyHash(Object key) {
+            if (!(key instanceof Number)) {
+                throw new IllegalArgumentException("key of column " + getName() + " must be a number: " + key);
+            }
+            return Integer.hashCode(((Number) key).intValue());
+        }
+
+        @Override
+        boolean keyEquals(int row, Object key) {
+            Number number = (Number) key;
+            return (values != null ? values[row] : buffer.getInt(row << 2)) == number.intValue()
+                    && isIntegralKey(number, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+
+        @Override
+        long memoryUsage() {
+            return super.memoryUsage() + (values != null ? values.length * 4L : buffer.capacity());
+        }
+    }
+
+    /**
+     * @SQLLong 列，值保存在 long[] 或堆外 ByteBuffer 中，null 行的值为 0
+     */
+    public static final class LongColumn extends Column {
+        private long[] values;
+        private ByteBuffer buffer;
+
+        LongColumn(ColumnarTable<?> table, ColumnMeta meta, int capacity) {
+            super(table, meta, capacity);
+            if (table.offHeap) {
+                buffer = allocateDirect(capacity * 8L);
+            } else {
+                values = new long[capacity];
+            }
+        }
+
+        /**
+         * 读取一行的值，null 行返回 0
+         */
+        public long get(int row) {
+            Objects.checkIndex(row, table.size);
+            return values != null ? values[row] : buffer.getLong(row << 3);
+        }
+
+        @Override
+        public Object getValue(int row) {
+            return get(row);
+        }
+
+        /**
+         * 所有行之和，null 行按 0 计算，溢出时抛出 ArithmeticException
+         */
+        public long sum() {
+            int n = table.size;
+            long sum = 0;
+            if (values != null) {
+                long[] a = values;
+                for (int row = 0; row < n; row++) {
+                    sum = Math.addExact(sum, a[row]);
+                }
+            } else {
+                ByteBuffer b = buffer;
+                for (int row = 0; row < n; row++) {
+                    sum = Math.addExact(sum, b.getLong(row << 3));
+                }
+            }
+            return sum;
+        }
+
+        /**
+         * rows 中所有行之和，溢出时抛出 ArithmeticException
+         */
+        public long sum(BitSet rows) {
+            long sum = 0;
+            for (int row = rows.nextSetBit(0); row >= 0 && row < table.size; row = rows.nextSetBit(row + 1)) {
+                sum = Math.addExact(sum, values != null ? values[row] : buffer.getLong(row << 3));
+            }
+            return sum;
+        }
+
+        /**
+         * 值在 [min, max] 之间的行，不包括 null 行
+         */
+        public BitSet between(long min, long max) {
+            int n = table.size;
+            long[] words = new long[words(n)];
+            if (min > max) {
+                return BitSet.valueOf(words);
+            }
+            // 按无符号数比较 v - min <= max - min，用减法的借位代替比较，循环体内没有分支
+            long range = max - min;
+            if (values != null) {
+                long[] a = values;
+                for (int row = 0; row < n; row++) {
+                    words[row >>> 6] |= inRange(a[row] - min, range) << row;
+                }
+            } else {
+                ByteBuffer b = buffer;
+                for (int row = 0; row < n; row++) {
+                    words[row >>> 6] |= inRange(b.getLong(row << 3) - min, range) << row;
+                }
+            }
+            return toRows(words);
+        }
+
+        /**
+         * 无符号数 d <= range 时返回 1，否则返回 0；range - d 产生借位说明 d 更大
+         */
+        private static long inRange(long d, long range) {
+            long borrow = ((~range & d) | (~(range ^ d) & (range - d))) >>> 63;
+            return borrow ^ 1;
+        }
+
+        public BitSet equalTo(long value) {
+            return between(value, value);
+        }
+
+        /**
+         * 通过任意条件过滤，不包括 null 行
+         */
+        public BitSet filter(LongPredicate predicate) {
+            int n = table.size;
+            long[] words = new long[words(n)];
+            for (int row = 0; row < n; row++) {
+                if (predicate.test(values != null ? values[row] : buffer.getLong(row << 3))) {
+                    words[row >>> 6] |= 1L << row;
+                }
+            }
+            return toRows(words);
+        }
+
+        @Override
+        void write(int row, Object value) {
+            setNull(row, value == null);
+            long v = value == null ? 0 : ((Number) value).longValue();
+            if (values != null) {
+                values[row] = v;
+            } else {
+                buffer.putLong(row << 3, v);
+            }
+        }
+
+        @Override
+        void grow(int newCapacity) {
+            nulls = Arrays.copyOf(nulls, words(newCapacity));
+            if (values != null) {
+                values = Arrays.copyOf(values, newCapacity);
+            } else {
+                buffer = copyOf(buffer, newCapacity * 8L);
+            }
+        }
+
+        @Override
+        int keyHash(Object key) {
+            if (!(key instanceof Number)) {
+                throw new IllegalArgumentException("key of column " + getName() + " must be a number: " + key);
+            }
+            return Long.hashCode(((Number) key).longValue());
+        }
+
+        @Override
+        boolean keyEquals(int row, Object key) {
+            Number number = (Number) key;
+            return (values != null ? values[row] : buffer.getLong(row << 3)) == number.longValue()
+                    && isIntegralKey(number, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+
+        @Override
+        long memoryUsage() {
+            return super.memoryUsage() + (values != null ? values.length * 8L : buffer.capacity());
+        }
+    }
+
+    /**
+     * @SQLString 列，每行占 @SQLString(value) 个字符的定长空间：
+     * 所有字符都不超过 0xFF 时每个字符一个字节，否则两个字节，长度保存在 char[] 中
+     */
+    public static final class StringColumn extends Column {
+        private final int width;
+        private boolean latin1 = true;
+        private char[] lengths;
+        private byte[] bytes;
+        private char[] chars;
+        private ByteBuffer buffer;
+
+        StringColumn(ColumnarTable<?> table, ColumnMeta meta, int capacity, int width) {
+            super(table, meta, capacity);
+            if (width < 1 || width > Character.MAX_VALUE) {
+                throw new IllegalArgumentException("column " + meta.getName() + " needs a @SQLString length between 1 and "
+                        + (int) Character.MAX_VALUE + " for columnar storage, but is " + width);
+            }
+            this.width = width;
+            this.lengths = new char[capacity];
+            if (table.offHeap) {
+                buffer = allocateDirect((long) capacity * width);
+            } else {
+                bytes = new byte[Math.multiplyExact(capacity, width)];
+            }
+        }
+
+        /**
+         * @SQLString(value) 指定的最大长度
+         */
+        public int getWidth() {
+            return width;
+        }
+
+        /**
+         * 是否仍然按每个字符一个字节存储
+         */
+        public boolean isLatin1() {
+            return latin1;
+        }
+
+        /**
+         * 读取一行的值，null 行返回 null
+         */
+        public String get(int row) {
+            Objects.checkIndex(row, table.size);
+            return (String) read(row);
+        }
+
+        @Override
+        public Object getValue(int row) {
+            return get(row);
+        }
+
+        public int length(int row) {
+            Objects.checkIndex(row, table.size);
+            return lengths[row];
+        }
+
+        /**
+         * 值等于 value 的行，只比较存储的字符，不创建 String
+         */
+        public BitSet equalTo(String value) {
+            return match(value, true);
+        }
+
+        public BitSet startsWith(String prefix) {
+            return match(prefix, false);
+        }
+
+        /**
+         * 通过任意条件过滤，每行都会创建 String，不包括 null 行
+         */
+        public BitSet filter(Predicate<String> predicate) {
+            int n = table.size;
+            long[] words = new long[words(n)];
+            for (int row = 0; row < n; row++) {
+                if ((nulls[row >>> 6] & (1L << row)) == 0 && predicate.test(decode(row))) {
+                    words[row >>> 6] |= 1L << row;
+                }
+            }
+            return toRows(words);
+        }
+
+        private BitSet match(String value, boolean exact) {
+            int n = table.size;
+            long[] words = new long[words(n)];
+            int len = value.length();
+            if (len > width || (latin1 && !isLatin1(value))) {
+                return BitSet.valueOf(words); // 不可能存储在这一列中
+            }
+            if (bytes != null) {
+                byte[] key = value.getBytes(StandardCharsets.ISO_8859_1);
+                for (int row = 0, off = 0; row < n; row++, off += width) {
+                    int rowLen = lengths[row];
+                    if ((exact ? rowLen == len : rowLen >= len)
+                            && Arrays.equals(bytes, off, off + len, key, 0, len)) {
+                        words[row >>> 6] |= 1L << row;
+                    }
+                }
+            } else if (chars != null) {
+                char[] key = value.toCharArray();
+                for (int row = 0, off = 0; row < n; row++, off += width) {
+                    int rowLen = lengths[row];
+                    if ((exact ? rowLen == len : rowLen >= len)
+                            && Arrays.equals(chars, off, off + len, key, 0, len)) {
+                        words[row >>> 6] |= 1L << row;
+                    }
+                }
+            } else {
+                for (int row = 0; row < n; row++) {
+                    int rowLen = lengths[row];
+                    if ((exact ? rowLen == len : rowLen >= len) && regionEquals(row, value, len)) {
+                        words[row >>> 6] |= 1L << row;
+                    }
+                }
+            }
+            return toRows(words);
+        }
+
+        private boolean regionEquals(int row, String value, int len) {
+            for (int i = 0; i < len; i++) {
+                if (charAt(row, i) != value.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private char charAt(int row, int i) {
+            int pos = row * width + i;
+            if (bytes != null) {
+                return (char) (bytes[pos] & 0xFF);
+            }
+            if (chars != null) {
+                return chars[pos];
+            }
+            return latin1 ? (char) (buffer.get(pos) & 0xFF) : buffer.getChar(pos << 1);
+        }
+
+        private String decode(int row) {
+            int len = lengths[row];
+            int off = row * width;
+            if (bytes != null) {
+                return new String(bytes, off, len, StandardCharsets.ISO_8859_1);
+            }
+            if (chars != null) {
+                return new String(chars, off, len);
+            }
+            char[] value = new char[len];
+            for (int i = 0; i < len; i++) {
+                value[i] = charAt(row, i);
+            }
+            return new String(value);
+        }
+
+        @Override
+        Object read(int row) {
+            return (nulls[row >>> 6] & (1L << row)) != 0 ? null : decode(row);
+        }
+
+        @Override
+        void check(Object value) {
+            if (value != null && value.toString().length() > width) {
+                throw new IllegalArgumentException("value too long for column " + meta + ": " + value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        void write(int row, Object value) {
+            setNull(row, value == null);
+            String s = value == null ? "" : value.toString();
+            if (latin1 && !isLatin1(s)) {
+                inflate();
+            }
+            int off = row * width;
+            int len = s.length();
+            lengths[row] = (char) len;
+            if (bytes != null) {
+                s.getBytes(0, len, bytes, off); // 已确认所有字符都不超过 0xFF
+            } else if (chars != null) {
+                s.getChars(0, len, chars, off);
+            } else if (latin1) {
+                for (int i = 0; i < len; i++) {
+                    buffer.put(off + i, (byte) s.charAt(i));
+                }
+            } else {
+                for (int i = 0; i < len; i++) {
+                    buffer.putChar((off + i) << 1, s.charAt(i));
+                }
+            }
+        }
+
+        /**
+         * 出现超过 0xFF 的字符时，整列转换为每个字符两个字节
+         */
+        private void inflate() {
+            int units = lengths.length * width;
+            if (bytes != null) {
+                chars = new char[units];
+                for (int i = 0; i < units; i++) {
+                    chars[i] = (char) (bytes[i] & 0xFF);
+                }
+                bytes = null;
+            } else {
+                ByteBuffer wide = allocateDirect(units * 2L);
+                for (int i = 0; i < units; i++) {
+                    wide.putChar(i << 1, (char) (buffer.get(i) & 0xFF));
+                }
+                buffer = wide;
+            }
+            latin1 = false;
+        }
+
+        @Override
+        void grow(int newCapacity) {
+            nulls = Arrays.copyOf(nulls, words(newCapacity));
+            lengths = Arrays.copyOf(lengths, newCapacity);
+            int units = Math.multiplyExact(newCapacity, width);
+            if (bytes != null) {
+                bytes = Arrays.copyOf(bytes, units);
+            } else if (chars != null) {
+                chars = Arrays.copyOf(chars, units);
+            } else {
+                buffer = copyOf(buffer, latin1 ? units : units * 2L);
+            }
+        }
+
+        @Override
+        int keyHash(Object key) {
+            if (!(key instanceof String)) {
+                throw new IllegalArgumentException("key of column " + getName() + " must be a string: " + key);
+            }
+            return key.hashCode();
+        }
+
+        @Override
+        boolean keyEquals(int row, Object key) {
+            String value = (String) key;
+            return lengths[row] == value.length() && regionEquals(row, value, value.length());
+        }
+
+        @Override
+        long memoryUsage() {
+            long data = bytes != null ? bytes.length : chars != null ? chars.length * 2L : buffer.capacity();
+            return super.memoryUsage() + lengths.length * 2L + data;
+        }
+
+        private static boolean isLatin1(String s) {
+            for (int i = 0; i < s.length(); i++) {
+                if (s.charAt(i) > 0xFF) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 单列主键上的开放寻址哈希表（线性探测），slots 保存 行号 + 1，0 表示空位；
+     * 同时保存每个槽位的 hash，探测时先比较 hash 再比较列中的值，负载超过 1/2 时扩容
+     */
+    private static final class PrimaryKeyIndex {
+        private final Column column;
+        private int[] slots;
+        private int[] hashes;
+        private int count;
+
+        PrimaryKeyIndex(Column column, int expectedRows) {
+            this.column = column;
+            int size = Integer.highestOneBit(Math.max(expectedRows, 8) - 1) << 2;
+            this.slots = new int[size];
+            this.hashes = new int[size];
+        }
+
+        int find(Object key, int hash) {
+            int mask = slots.length - 1;
+            for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+                int slot = slots[i];
+                if (slot == 0) {
+                    return -1;
+                }
+                if (hashes[i] == hash && column.keyEquals(slot - 1, key)) {
+                    return slot - 1;
+                }
+            }
+        }
+
+        void insert(int row, int hash) {
+            if ((count + 1) * 2 > slots.length) {
+                resize();
+            }
+            put(slots, hashes, row + 1, hash);
+            count++;
+        }
+
+        private void resize() {
+            int[] newSlots = new int[slots.length * 2];
+            int[] newHashes = new int[newSlots.length];
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] != 0) {
+                    put(newSlots, newHashes, slots[i], hashes[i]);
+                }
+            }
+            slots = newSlots;
+            hashes = newHashes;
+        }
+
+        private static void put(int[] slots, int[] hashes, int slot, int hash) {
+            int mask = slots.length - 1;
+            int i = spread(hash) & mask;
+            while (slots[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            slots[i] = slot;
+            hashes[i] = hash;
+        }
+
+        /**
+         * 连续的整数主键直接取低位会聚集在一起，先乘以黄金分割常数打散
+         */
+        private static int spread(int hash) {
+            int h = hash * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        long memoryUsage() {
+            return slots.length * 8L;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package anno.orm;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 以主键为 key 的 @DBTable 实体缓存：
+ *   1. 读穿透：未命中时通过 Loader 加载（比如按主键查询数据库）并放入缓存，查询结果为 null 时不缓存；
+ *   2. 按 key 的 hash 分为若干段，每段是一个按访问顺序排列的 LinkedHashMap，由独立的锁保护，
+ *      各段容量之和为 maxSize，超过每段的容量时淘汰该段最久未访问的实体（分段 LRU），不同段之间的读写互不阻塞；
+ *   3. 加载在锁外执行，慢查询不会阻塞同一段上的其他读取；加载期间该段发生过失效时，加载结果不放入缓存，
+ *      避免把失效前读到的旧数据重新缓存；
+ *   4. EntityWriter.withCache 在每次提交后使写入过的 key 失效，也可以直接调用 invalidate；
+ *   5. 命中、未命中、淘汰次数基于 LongAdder 统计，用于评估容量。
+ *
+ * 单列主键的 key 为列的值，联合主键的 key 为按主键顺序排列的 List，与 TableMeta.primaryKeyOf 一致。
+ * 缓存中的实体是共享的，调用方不应修改。
+ */
+public final class EntityCache<K, T> {
+
+    /**
+     * 按 key 加载实体，不存在时返回 null
+     */
+    @FunctionalInterface
+    public interface Loader<K, T> {
+        T load(K key) throws SQLException;
+    }
+
+    private final TableMeta meta;
+    private final Loader<K, T> loader;
+    private final Segment<K, T>[] segments;
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param entityClass 实体类，需要有主键
+     * @param maxSize 最多缓存的实体数量
+     * @param loader 未命中时的加载方式
+     */
+    @SuppressWarnings("unchecked")
+    public EntityCache(Class<T> entityClass, int maxSize, Loader<K, T> loader) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.meta = TableMeta.of(entityClass);
+        if (meta.getPrimaryKeys().isEmpty()) {
+            throw new IllegalArgumentException("table " + meta.getTableName() + " has no primary key");
+        }
+        this.loader = loader;
+        this.maxSize = maxSize;
+
+        // 段数为 2 的幂，不超过 maxSize，各段容量之和等于 maxSize
+        int count = Integer.highestOneBit(Math.min(Runtime.getRuntime().availableProcessors() * 4, maxSize));
+        this.segments = (Segment<K, T>[]) new Segment<?, ?>[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(maxSize / count + (i < maxSize % count ? 1 : 0), evictions);
+        }
+    }
+
+    /**
+     * 通过 DataSource 按主键查询的读穿透缓存，每次加载从 DataSource 获取一个连接
+     */
+    public static <K, T> EntityCache<K, T> jdbc(Class<T> entityClass, int maxSize, DataSource dataSource) {
+        TableMeta meta = TableMeta.of(entityClass);
+        String sql = meta.getSelectByPrimaryKeySql();
+        EntityMapper<T> mapper = EntityMapper.of(entityClass);
+        int keyColumns = meta.getPrimaryKeys().size();
+        return new EntityCache<>(entityClass, maxSize, key -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(sql)) {
+                if (keyColumns == 1) {
+                    ps.setObject(1, key);
+                } else {
+                    List<?> values = (List<?>) key;
+                    for (int i = 0; i < keyColumns; i++) {
+                        ps.setObject(i + 1, values.get(i));
+                    }
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    List<T> rows = mapper.mapAll(rs);
+                    return rows.isEmpty() ? null : rows.get(0);
+                }
+            }
+        });
+    }
+
+    /**
+     * 获取缓存的实体，未命中时加载；并发加载同一个 key 时以先放入缓存的结果为准
+     */
+    public T get(K key) throws SQLException {
+        Segment<K, T> segment = segmentFor(key);
+        T cached = segment.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long generation = segment.generation;
+        T loaded = loader.load(key);
+        return loaded == null ? null : segment.putIfAbsent(key, loaded, generation);
+    }
+
+    /**
+     * 只查询缓存，不加载，也不计入命中率
+     */
+    public T getIfPresent(K key) {
+        return segmentFor(key).get(key);
+    }
+
+    /**
+     * 直接放入缓存，比如写入数据库之后
+     */
+    public void put(K key, T entity) {
+        segmentFor(key).put(key, entity);
+    }
+
+    public void invalidate(K key) {
+        segmentFor(key).remove(key);
+    }
+
+    /**
+     * 使实体对应主键的缓存失效
+     */
+    @SuppressWarnings("unchecked")
+    public void invalidateEntity(T entity) {
+        invalidate((K) meta.primaryKeyOf(entity));
+    }
+
+    public void invalidateAll(Collection<?> keys) {
+        for (Object key : keys) {
+            segmentFor(key).remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        for (Segment<K, T> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public TableMeta getTableMeta() {
+        return meta;
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment<K, T> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public double hitRate() {
+        long h = hitCount();
+        long total = h + missCount();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityCache{" + meta.getTableName() + ", size=" + size() + "/" + maxSize + ", hits=" + hitCount()
+                + ", misses=" + missCount() + ", evictions=" + evictionCount() + '}';
+    }
+
+    private Segment<K, T> segmentFor(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return segments[h & (segments.length - 1)];
+    }
+
+    /**
+     * 单个分段，访问顺序的 LinkedHashMap 在 get 时也会调整顺序，所以读写都需要加锁
+     */
+    private static final class Segment<K, T> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Object, T> map;
+        // 每次失效时加一，加载前后不一致说明加载期间发生过失效
+        volatile long generation;
+
+        Segment(int capacity, LongAdder evictions) {
+            this.map = new LinkedHashMap<Object, T>(Math.min(capacity, 1024), 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, T> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        T get(Object key) {
+            lock.lock();
+            try {
+                return map.get(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        T putIfAbsent(Object key, T value, long expectedGeneration) {
+            lock.lock();
+            try {
+                if (generation != expectedGeneration) {
+                    return value;
+                }
+                T existing = map.putIfAbsent(key, value);
+                return existing != null ? existing : value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(Object key, T value) {
+            lock.lock();
+            try {
+                map.put(key, value);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(Object key) {
+            lock.lock();
+            try {
+                map.remove(key);
+                generation++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                map.clear();
+                generation++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return map.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
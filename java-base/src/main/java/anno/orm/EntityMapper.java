@@ -0,0 +1,286 @@
+package anno.orm;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * ResultSet 到 @DBTable 实体的映射器，每个实体类只构建一次：
+ *   1. 每个列生成类型精确的 MethodHandle setter，基本类型字段通过 getInt / getDouble 等直接赋值，不发生装箱；
+ *   2. 每个 ResultSet 只通过 ResultSetMetaData 解析一次 列名 -> 下标，之后逐行按下标读取，不再按名字查找；
+ *   3. 支持一次性读取为 List、逐行回调以及 Stream，后两者不会把整个结果集保存在内存中。
+ *
+ * 使用例子：
+ * try (Stream<Member> members = EntityMapper.of(Member.class).stream(conn, "SELECT * FROM MEMBER", 1000)) {
+ *     members.forEach(...);
+ * }
+ *
+ * 映射器是线程安全的，可以在多个线程之间共享；ResultSet 中不存在的列保持字段的默认值。
+ */
+public final class EntityMapper<T> {
+
+    private static final ClassValue<EntityMapper<?>> MAPPERS = new ClassValue<EntityMapper<?>>() {
+        @Override
+        protected EntityMapper<?> computeValue(Class<?> type) {
+            return new EntityMapper<>(type);
+        }
+    };
+
+    /**
+     * 获取实体类的映射器
+     * @throws IllegalArgumentException 类没有被 @DBTable 注解
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> EntityMapper<T> of(Class<T> entityClass) {
+        return (EntityMapper<T>) MAPPERS.get(entityClass);
+    }
+
+    private final Class<T> type;
+    private final TableMeta meta;
+    // 无参构造器，类型为 ()Object
+    private final MethodHandle constructor;
+    private final ColumnSetter[] setters;
+
+    private EntityMapper(Class<T> type) {
+        this.type = type;
+        this.meta = TableMeta.of(type);
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+            List<ColumnMeta> columns = meta.getColumns();
+            this.setters = new ColumnSetter[columns.size()];
+            for (int i = 0; i < setters.length; i++) {
+                setters[i] = new ColumnSetter(columns.get(i), lookup);
+            }
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("can not map class " + type.getName(), e);
+        }
+    }
+
+    public TableMeta getTableMeta() {
+        return meta;
+    }
+
+    /**
+     * 读取 ResultSet 剩余的所有行
+     */
+    public List<T> mapAll(ResultSet rs) throws SQLException {
+        List<T> result = new ArrayList<>();
+        forEach(rs, result::add);
+        return result;
+    }
+
+    /**
+     * 逐行映射并交给 consumer，不保存结果，不关闭 ResultSet
+     */
+    public void forEach(ResultSet rs, Consumer<? super T> consumer) throws SQLException {
+        RowPlan plan = plan(rs.getMetaData());
+        while (rs.next()) {
+            consumer.accept(plan.map(rs));
+        }
+    }
+
+    /**
+     * 执行查询并逐行回调，fetchSize 控制驱动每次从数据库读取的行数
+     */
+    public void query(Connection connection, String sql, int fetchSize, Consumer<? super T> consumer)
+            throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(fetchSize);
+            try (ResultSet rs = ps.executeQuery()) {
+                forEach(rs, consumer);
+            }
+        }
+    }
+
+    /**
+     * 将 ResultSet 包装为按需读取的 Stream，Stream 关闭时关闭 ResultSet；
+     * 读取过程中的 SQLException 包装为 IllegalStateException 抛出
+     */
+    public Stream<T> stream(ResultSet rs) throws SQLException {
+        RowPlan plan = plan(rs.getMetaData());
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    action.accept(plan.map(rs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new IllegalStateException("error occur when reading " + meta.getTableName(), e);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> closeUnchecked(rs));
+    }
+
+    /**
+     * 执行查询并返回按需读取的 Stream，需要通过 try-with-resources 关闭以释放 Statement 与 ResultSet
+     */
+    public Stream<T> stream(Connection connection, String sql, int fetchSize) throws SQLException {
+        PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+        try {
+            ps.setFetchSize(fetchSize);
+            return stream(ps.executeQuery()).onClose(() -> closeUnchecked(ps));
+        } catch (SQLException | RuntimeException e) {
+            ps.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 通过 ResultSetMetaData 确定每个列在结果集中的下标，列名忽略大小写
+     */
+    private RowPlan plan(ResultSetMetaData md) throws SQLException {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = md.getColumnCount(); i >= 1; i--) {
+            indexes.put(md.getColumnLabel(i).toUpperCase(), i); // 倒序遍历，同名列取第一个
+        }
+        List<ColumnSetter> present = new ArrayList<>(setters.length);
+        List<Integer> positions = new ArrayList<>(setters.length);
+        for (ColumnSetter setter : setters) {
+            Integer index = indexes.get(setter.column.getName().toUpperCase());
+            if (index != null) {
+                present.add(setter);
+                positions.add(index);
+            }
+        }
+        int[] columnIndexes = new int[positions.size()];
+        for (int i = 0; i < columnIndexes.length; i++) {
+            columnIndexes[i] = positions.get(i);
+        }
+        return new RowPlan(present.toArray(new ColumnSetter[0]), columnIndexes);
+    }
+
+    private final class RowPlan {
+        private final ColumnSetter[] setters;
+        private final int[] indexes;
+
+        RowPlan(ColumnSetter[] setters, int[] indexes) {
+            this.setters = setters;
+            this.indexes = indexes;
+        }
+
+        T map(ResultSet rs) throws SQLException {
+            Object entity;
+            try {
+                entity = (Object) constructor.invokeExact();
+            } catch (Throwable e) {
+                throw new IllegalStateException("can not instantiate " + type.getName(), e);
+            }
+            for (int i = 0; i < setters.length; i++) {
+                setters[i].set(entity, rs, indexes[i]);
+            }
+            return type.cast(entity);
+        }
+    }
+
+    /**
+     * 单个列的读取与赋值方式，按字段类型选择 ResultSet 的 getter：
+     * 基本类型字段通过 getInt / getDouble 等直接赋值，SQL NULL 时为基本类型的默认值；其他字段通过 getObject 读取
+     */
+    private static final class ColumnSetter {
+        private static final int BOOLEAN = 0, BYTE = 1, SHORT = 2, CHAR = 3, INT = 4, LONG = 5, FLOAT = 6, DOUBLE = 7,
+                STRING = 8, OBJECT = 9;
+
+        final ColumnMeta column;
+        private final int kind;
+        private final Class<?> fieldType;
+        // 基本类型字段的签名为 (Object, int)void 等，其他为 (Object, Object)void
+        private final MethodHandle setter;
+
+        ColumnSetter(ColumnMeta column, MethodHandles.Lookup lookup) throws IllegalAccessException {
+            this.column = column;
+            Field field = column.getField();
+            this.fieldType = field.getType();
+            this.kind = kindOf(fieldType);
+            Class<?> valueType = fieldType.isPrimitive() ? fieldType : Object.class;
+            this.setter = lookup.unreflectSetter(field)
+                    .asType(MethodType.methodType(void.class, Object.class, valueType));
+        }
+
+        private static int kindOf(Class<?> type) {
+            if (type == boolean.class) return BOOLEAN;
+            if (type == byte.class) return BYTE;
+            if (type == short.class) return SHORT;
+            if (type == char.class) return CHAR;
+            if (type == int.class) return INT;
+            if (type == long.class) return LONG;
+            if (type == float.class) return FLOAT;
+            if (type == double.class) return DOUBLE;
+            if (type == String.class) return STRING;
+            return OBJECT;
+        }
+
+        void set(Object entity, ResultSet rs, int index) throws SQLException {
+            try {
+                switch (kind) {
+                    case BOOLEAN:
+                        setter.invokeExact(entity, rs.getBoolean(index));
+                        break;
+                    case BYTE:
+                        setter.invokeExact(entity, rs.getByte(index));
+                        break;
+                    case SHORT:
+                        setter.invokeExact(entity, rs.getShort(index));
+                        break;
+                    case CHAR: {
+                        String s = rs.getString(index);
+                        setter.invokeExact(entity, s == null || s.isEmpty() ? '\u0000' : s.charAt(0));
+                        break;
+                    }
+                    case INT:
+                        setter.invokeExact(entity, rs.getInt(index));
+                        break;
+                    case LONG:
+                        setter.invokeExact(entity, rs.getLong(index));
+                        break;
+                    case FLOAT:
+                        setter.invokeExact(entity, rs.getFloat(index));
+                        break;
+                    case DOUBLE:
+                        setter.invokeExact(entity, rs.getDouble(index));
+                        break;
+                    case STRING:
+                        setter.invokeExact(entity, (Object) rs.getString(index));
+                        break;
+                    default:
+                        setter.invokeExact(entity, (Object) rs.getObject(index, fieldType));
+                }
+            } catch (SQLException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static void closeUnchecked(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            throw new IllegalStateException("error occur when closing " + closeable, e);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package anno.orm;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量写入 @DBTable 实体的写入器，一个写入器对应一张表：
+ *   1. SQL 来自缓存的 TableMeta，INSERT 或者以主键为 KEY 的 MERGE；
+ *   2. 整个写入过程复用同一个 PreparedStatement，每 batchSize 行执行一次 executeBatch；
+ *   3. 写入期间关闭自动提交，每 commitSize 行提交一次，close 时提交剩余的行并恢复连接原来的设置；
+ *      executeBatch 出错时立即回滚尚未提交的行，此后写入器不再可用，close 只恢复连接的设置；
+ *   4. 通过 withCache 关联 EntityCache 时，每次提交（或回滚）后使本次写入过的主键失效。
+ *
+ * 使用例子：
+ * try (EntityWriter<Member> writer = EntityWriter.upsert(conn, Member.class).withBatchSize(1000)) {
+ *     writer.writeAll(members);
+ * }
+ *
+ * 不是线程安全的，不关闭 Connection。
+ */
+public final class EntityWriter<T> implements AutoCloseable {
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final int DEFAULT_COMMIT_SIZE = 10_000;
+
+    private final Connection connection;
+    private final TableMeta meta;
+    private final String sql;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int commitSize = DEFAULT_COMMIT_SIZE;
+    private final List<EntityCache<?, ? super T>> caches = new ArrayList<>(1);
+    // 尚未提交的行的主键，只在关联了缓存时记录
+    private final List<Object> uncommittedKeys = new ArrayList<>();
+
+    private PreparedStatement statement;
+    private boolean autoCommit;
+    // 当前批次中的行数、提交后尚未提交的行数、累计写入的行数
+    private int pendingBatch;
+    private int uncommitted;
+    private long written;
+    // executeBatch 出错并已回滚
+    private boolean failed;
+
+    private EntityWriter(Connection connection, Class<T> entityClass, boolean upsert) {
+        this.connection = connection;
+        this.meta = TableMeta.of(entityClass);
+        this.sql = upsert ? meta.getMergeSql() : meta.getInsertSql();
+    }
+
+    /**
+     * 使用 INSERT 写入
+     */
+    public static <T> EntityWriter<T> insert(Connection connection, Class<T> entityClass) {
+        return new EntityWriter<>(connection, entityClass, false);
+    }
+
+    /**
+     * 使用以主键为 KEY 的 MERGE 写入，主键已存在时更新
+     * @throws IllegalStateException 表没有主键
+     */
+    public static <T> EntityWriter<T> upsert(Connection connection, Class<T> entityClass) {
+        return new EntityWriter<>(connection, entityClass, true);
+    }
+
+    /**
+     * 每批的行数，需要在第一次写入前设置
+     */
+    public EntityWriter<T> withBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * 每次提交的行数，会向上取整为 batchSize 的整数倍，需要在第一次写入前设置
+     */
+    public EntityWriter<T> withCommitSize(int commitSize) {
+        if (commitSize < 1) {
+            throw new IllegalArgumentException("commitSize must be positive: " + commitSize);
+        }
+        this.commitSize = commitSize;
+        return this;
+    }
+
+    /**
+     * 关联实体缓存，提交后使写入过的主键失效
+     */
+    public EntityWriter<T> withCache(EntityCache<?, ? super T> cache) {
+        if (cache.getTableMeta() != meta) {
+            throw new IllegalArgumentException("cache of table " + cache.getTableMeta().getTableName()
+                    + " can not be used for " + meta.getTableName());
+        }
+        caches.add(cache);
+        return this;
+    }
+
+    /**
+     * @throws IllegalStateException 之前的 executeBatch 出错，写入器已回滚
+     */
+    public void write(T entity) throws SQLException {
+        checkNotFailed();
+        PreparedStatement ps = statement();
+        List<ColumnMeta> columns = meta.getColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            columns.get(i).bind(ps, i + 1, entity);
+        }
+        ps.addBatch();
+        if (!caches.isEmpty()) {
+            uncommittedKeys.add(meta.primaryKeyOf(entity));
+        }
+        if (++pendingBatch >= batchSize) {
+            executeBatch();
+        }
+    }
+
+    public void writeAll(Iterable<? extends T> entities) throws SQLException {
+        for (T entity : entities) {
+            write(entity);
+        }
+    }
+
+    /**
+     * 执行当前批次并提交所有未提交的行
+     */
+    public void flush() throws SQLException {
+        if (statement == null) {
+            return;
+        }
+        checkNotFailed();
+        executeBatch();
+        commit();
+    }
+
+    /**
+     * 累计写入（已执行 executeBatch）的行数
+     */
+    public long getWrittenRows() {
+        return written;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * 提交剩余的行，关闭 PreparedStatement 并恢复自动提交的设置；出错时回滚尚未提交的行
+     */
+    @Override
+    public void close() throws SQLException {
+        if (statement == null) {
+            return;
+        }
+        try {
+            if (failed) {
+                connection.rollback();
+            } else {
+                flush();
+            }
+        } catch (SQLException e) {
+            if (!failed) {
+                rollback();
+            }
+            throw e;
+        } finally {
+            try {
+                statement.close();
+            } finally {
+                statement = null;
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private PreparedStatement statement() throws SQLException {
+        if (statement == null) {
+            autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            statement = connection.prepareStatement(sql);
+        }
+        return statement;
+    }
+
+    private void executeBatch() throws SQLException {
+        if (pendingBatch == 0) {
+            return;
+        }
+        try {
+            statement.executeBatch();
+        } catch (SQLException e) {
+            failed = true;
+            rollback();
+            throw e;
+        }
+        written += pendingBatch;
+        uncommitted += pendingBatch;
+        pendingBatch = 0;
+        if (uncommitted >= commitSize) {
+            commit();
+        }
+    }
+
+    /**
+     * 回滚尚未提交的行（包括当前批次），并使其主键在缓存中失效
+     */
+    private void rollback() throws SQLException {
+        pendingBatch = 0;
+        uncommitted = 0;
+        try {
+            statement.clearBatch();
+            connection.rollback();
+        } finally {
+            invalidateUncommitted();
+        }
+    }
+
+    private void checkNotFailed() {
+        if (failed) {
+            throw new IllegalStateException("writer of " + meta.getTableName() + " has been rolled back");
+        }
+    }
+
+    private void invalidateUncommitted() {
+        for (EntityCache<?, ? super T> cache : caches) {
+            cache.invalidateAll(uncommittedKeys);
+        }
+        uncommittedKeys.clear();
+    }
+
+    private void commit() throws SQLException {
+        if (uncommitted > 0) {
+            connection.commit();
+            uncommitted = 0;
+            invalidateUncommitted();
+        }
+    }
+}
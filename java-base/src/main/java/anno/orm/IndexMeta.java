@@ -0,0 +1,97 @@
+package anno.orm;
+
+import anno.orm.annos.Index;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 单个索引的元数据，由 TableMeta 根据类与字段上的 @Index 构建；
+ * 主键与 unique 列由数据库自动建立索引，也用 IndexMeta 表示，但不会生成 CREATE INDEX
+ */
+public final class IndexMeta {
+    private final String name;
+    private final List<ColumnMeta> columns;
+    private final List<Index.Order> orders;
+    private final boolean unique;
+    // 主键或 unique 约束带来的索引
+    private final boolean implicit;
+    // 显式声明的索引为 CREATE INDEX 语句，隐式索引为 null
+    private final String createIndexSql;
+
+    IndexMeta(String tableName, String name, List<ColumnMeta> columns, List<Index.Order> orders, boolean unique,
+              boolean implicit) {
+        this.name = name;
+        this.columns = Collections.unmodifiableList(columns);
+        this.orders = Collections.unmodifiableList(orders);
+        this.unique = unique;
+        this.implicit = implicit;
+        this.createIndexSql = implicit ? null : buildCreateIndex(tableName);
+    }
+
+    private String buildCreateIndex(String tableName) {
+        StringBuilder sql = new StringBuilder(48 + columns.size() * 16);
+        sql.append(unique ? "CREATE UNIQUE INDEX " : "CREATE INDEX ").append(name)
+                .append(" ON ").append(tableName).append(" (");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(columns.get(i).getName());
+            if (orders.get(i) == Index.Order.DESC) {
+                sql.append(" DESC");
+            }
+        }
+        return sql.append(");").toString();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 按索引顺序排列的列
+     */
+    public List<ColumnMeta> getColumns() {
+        return columns;
+    }
+
+    /**
+     * 与 getColumns 一一对应的排序方向
+     */
+    public List<Index.Order> getOrders() {
+        return orders;
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+
+    public boolean isImplicit() {
+        return implicit;
+    }
+
+    /**
+     * 从第一列开始，连续出现在 filterColumns 中的列数，即等值过滤时能用上的索引前缀长度
+     */
+    int prefixLength(List<ColumnMeta> filterColumns) {
+        int n = 0;
+        while (n < columns.size() && filterColumns.contains(columns.get(n))) {
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * CREATE INDEX 语句
+     * @throws IllegalStateException 主键或 unique 约束带来的隐式索引
+     */
+    public String getCreateIndexSql() {
+        if (createIndexSql == null) {
+            throw new IllegalStateException("index " + name + " is created by constraint");
+        }
+        return createIndexSql;
+    }
+
+    @Override
+    public String toString() {
+        return createIndexSql != null ? createIndexSql : name + " " + columns;
+    }
+}
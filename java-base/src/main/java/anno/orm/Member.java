@@ -2,15 +2,18 @@ package anno.orm;
 
 import anno.orm.annos.Constraints;
 import anno.orm.annos.DBTable;
+import anno.orm.annos.Index;
 import anno.orm.annos.SQLInteger;
 import anno.orm.annos.SQLString;
 
 @DBTable(name = "MEMBER")
+@Index(columns = {"AGE", "LASTNAME"}, order = Index.Order.DESC)
 public class Member {
     @SQLString(value = 30)
     public String firstName;
 
     @SQLString(value = 50)
+    @Index
     public String lastName;
 
     @SQLInteger
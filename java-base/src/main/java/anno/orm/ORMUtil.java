@@ -4,16 +4,22 @@ import anno.orm.annos.Constraints;
 
 public class ORMUtil {
     public static String getConstraints(Constraints con) {
-        String constraints = "";
+        return appendConstraints(new StringBuilder(32), con).toString();
+    }
+
+    /**
+     * 把约束追加到 sql，比如 " NOT NULL PRIMARY KEY"，没有约束时不追加
+     */
+    public static StringBuilder appendConstraints(StringBuilder sql, Constraints con) {
         if (!con.allowNull()) {
-            constraints += " NOT NULL";
+            sql.append(" NOT NULL");
         }
         if (con.primaryKey()) {
-            constraints += " PRIMARY KEY";
+            sql.append(" PRIMARY KEY");
         }
         if (con.unique()) {
-            constraints += " UNIQUE";
+            sql.append(" UNIQUE");
         }
-        return constraints;
+        return sql;
     }
 }
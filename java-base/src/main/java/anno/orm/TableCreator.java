@@ -1,69 +1,172 @@
 package anno.orm;
 
 import anno.orm.annos.DBTable;
-import anno.orm.annos.SQLInteger;
-import anno.orm.annos.SQLString;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Enumeration;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
 
 public class TableCreator {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         testCreateTable();
+
+        // 生成整个包下所有实体类的建表语句
+        StringWriter out = new StringWriter();
+        createTables(TableCreator.class.getPackage().getName(), out);
+        System.out.println(out);
+
+        // 检查常用的过滤条件是否有索引
+        checkFilterKeys(Member.class, warning -> System.out.println("WARNING: " + warning), "LASTNAME");
+        checkFilterKeys(Member.class, warning -> System.out.println("WARNING: " + warning), "FIRSTNAME");
     }
 
     public static void testCreateTable() {
         Class<?> cl = Member.class;
-        DBTable table = cl.getAnnotation(DBTable.class);
-        if (table == null) {
+        if (cl.getAnnotation(DBTable.class) == null) {
             System.out.println("No DBTable annotation in class " + cl.getName());
             return;
         }
-        String tableName = table.name();
-        if (tableName.length() < 1) {
-            tableName = cl.getName().toUpperCase(); // 如果获取名字为空， 使用 class name
+        TableMeta meta = TableMeta.of(cl);
+        for (ColumnMeta column : meta.getColumns()) {
+            System.out.println("current field: " + column.getField().getName() + ", get sql string: " + column.getDefinition());
         }
-        List<String> colDefs = new ArrayList<>();
-        for (Field field : cl.getDeclaredFields()) {
-            String colName = null;
-            Annotation[] anns = field.getDeclaredAnnotations();
-            if (anns.length < 1) {
-                continue; // 不是数据库表字段
-            }
+        System.out.println("finally get SQL string: " + meta.getCreateTableSql());
+        for (String sql : meta.getCreateIndexSqls()) {
+            System.out.println("index SQL string: " + sql);
+        }
+    }
 
-            if (anns[0] instanceof SQLInteger) {
-                SQLInteger sInt = (SQLInteger) anns[0];
-                if (sInt.name().length() < 1) {
-                    colName = field.getName().toUpperCase(); // 如果 name 未指定，就使用字段名
-                } else {
-                    colName = sInt.name();
-                }
-                String def = colName + " INT" + ORMUtil.getConstraints(sInt.constraints());
-                colDefs.add(def);
-                System.out.println("current field: " + field.getName() + ", get sql string: " + def);
+    /**
+     * 获取实体类的建表语句，TableMeta 会被缓存，重复调用不再反射
+     */
+    public static String createTable(Class<?> cl) {
+        return TableMeta.of(cl).getCreateTableSql();
+    }
+
+    /**
+     * 生成多个实体类的建表语句并写到 out：
+     *   1. 各个类的 TableMeta 并行构建；
+     *   2. 按表名排序后依次写出，每张表的 CREATE INDEX 紧跟在 CREATE TABLE 之后，表之间空一行，输出与执行顺序无关
+     */
+    public static void createTables(Collection<Class<?>> entities, Writer out) throws IOException {
+        List<TableMeta> metas = entities.parallelStream()
+                .map(TableMeta::of)
+                .sorted(Comparator.comparing(TableMeta::getTableName))
+                .collect(Collectors.toList());
+        for (TableMeta meta : metas) {
+            out.write(meta.getCreateTableSql());
+            out.write("\n");
+            for (String sql : meta.getCreateIndexSqls()) {
+                out.write(sql);
+                out.write("\n");
             }
+            out.write("\n");
+        }
+        out.flush();
+    }
+
+    /**
+     * 生成包（含子包）下所有被 @DBTable 注解的类的建表语句并写到 out
+     */
+    public static void createTables(String packageName, Writer out) throws IOException {
+        createTables(findEntities(packageName), out);
+    }
 
-            if (anns[0] instanceof SQLString) {
-                SQLString sString = (SQLString) anns[0];
-                if (sString.name().length() < 1 ) {
-                    colName = field.getName().toUpperCase();
-                } else {
-                    colName = sString.name();
+    /**
+     * 检查以 filterColumns 作为等值过滤条件时是否有索引可用（包括主键与 unique 约束）
+     * @return 是否有可用的索引
+     */
+    public static boolean checkFilterKeys(Class<?> cl, String... filterColumns) {
+        return checkFilterKeys(cl, warning -> { }, filterColumns);
+    }
+
+    /**
+     * 同 checkFilterKeys(Class, String...)，没有可用的索引时把警告交给 onMissing（比如写入日志），
+     * 建议在建表时通过 @Index 声明，而不是上线后再补
+     */
+    public static boolean checkFilterKeys(Class<?> cl, Consumer<String> onMissing, String... filterColumns) {
+        TableMeta meta = TableMeta.of(cl);
+        IndexMeta index = meta.findIndex(filterColumns);
+        if (index == null) {
+            onMissing.accept("no index on " + meta.getTableName() + "(" + String.join(", ", filterColumns)
+                    + "), filtering will scan the whole table; consider adding @Index");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 扫描 classpath 上的包（目录或 jar），加载其中被 @DBTable 注解的类
+     */
+    static List<Class<?>> findEntities(String packageName) throws IOException {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) {
+            loader = TableCreator.class.getClassLoader();
+        }
+        String path = packageName.replace('.', '/');
+        List<String> classNames = new ArrayList<>();
+        Enumeration<URL> resources = loader.getResources(path);
+        while (resources.hasMoreElements()) {
+            URL url = resources.nextElement();
+            if ("file".equals(url.getProtocol())) {
+                File dir = new File(URLDecoder.decode(url.getFile(), StandardCharsets.UTF_8.name()));
+                collectClassNames(dir, packageName, classNames);
+            } else if ("jar".equals(url.getProtocol())) {
+                URLConnection connection = url.openConnection();
+                try (JarFile jar = ((JarURLConnection) connection).getJarFile()) {
+                    Enumeration<JarEntry> entries = jar.entries();
+                    while (entries.hasMoreElements()) {
+                        String name = entries.nextElement().getName();
+                        if (name.startsWith(path + "/") && name.endsWith(".class")) {
+                            classNames.add(name.substring(0, name.length() - 6).replace('/', '.'));
+                        }
+                    }
                 }
-                String def = colName + " VARCHAR(" + sString.value() + ")" + ORMUtil.getConstraints(sString.constraints());
-                colDefs.add(def);
-                System.out.println("current field: " + field.getName() + ", get sql string: " + def);
             }
+        }
+
+        final ClassLoader classLoader = loader;
+        return classNames.parallelStream()
+                .filter(name -> !name.contains("$") && !name.endsWith("package-info"))
+                .map(name -> {
+                    try {
+                        return Class.forName(name, false, classLoader);
+                    } catch (ClassNotFoundException e) {
+                        throw new UncheckedIOException(new IOException("can not load class " + name, e));
+                    }
+                })
+                .filter(cl -> cl.isAnnotationPresent(DBTable.class))
+                .collect(Collectors.toList());
+    }
 
+    private static void collectClassNames(File dir, String packageName, List<String> classNames) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
         }
-        // 合并结果
-        StringBuilder createCommand = new StringBuilder("CREATE TABLE " + tableName + "(");
-        for (String colDef : colDefs) {
-            createCommand.append("\n    ").append(colDef).append(",");
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isDirectory()) {
+                collectClassNames(file, packageName + "." + name, classNames);
+            } else if (name.endsWith(".class")) {
+                classNames.add(packageName + "." + name.substring(0, name.length() - 6));
+            }
         }
-        String tableCreate = createCommand.substring(0, createCommand.length() - 1) + ");"; // 去除最后 ","
-        System.out.println("finally get SQL string: " + tableCreate);
     }
 }
@@ -0,0 +1,371 @@
+package anno.orm;
+
+import anno.orm.annos.DBTable;
+import anno.orm.annos.Index;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 被 @DBTable 注解的实体类的表结构，每个类只在第一次使用时通过反射构建一次并缓存：
+ *   1. 表名（未指定时为大写的类名）；
+ *   2. 按字段声明顺序排列的列，字段上的所有注解都会被检查，列类型通过 ColumnTypes 按注解类型查找；
+ *   3. 主键列，以及缓存好的 CREATE TABLE、INSERT、MERGE、按主键查询的语句；
+ *   4. 类与字段上 @Index 声明的索引及其 CREATE INDEX 语句，可以通过 findIndex 检查过滤条件是否有索引可用。
+ *
+ * 建表、插入、结果映射等代码都可以共享同一份元数据。
+ */
+public final class TableMeta {
+
+    private static final ClassValue<TableMeta> METAS = new ClassValue<TableMeta>() {
+        @Override
+        protected TableMeta computeValue(Class<?> type) {
+            return new TableMeta(type);
+        }
+    };
+
+    /**
+     * 获取实体类的表结构
+     * @throws IllegalArgumentException 类没有被 @DBTable 注解
+     */
+    public static TableMeta of(Class<?> cl) {
+        return METAS.get(cl);
+    }
+
+    private final Class<?> type;
+    private final String tableName;
+    private final List<ColumnMeta> columns;
+    private final Map<String, ColumnMeta> columnsByName;
+    private final List<ColumnMeta> primaryKeys;
+    // @Index 声明的索引
+    private final List<IndexMeta> indexes;
+    // 声明的索引加上主键、unique 约束带来的隐式索引
+    private final List<IndexMeta> allIndexes;
+    private final String createTableSql;
+    private final String insertSql;
+    // 没有主键时为 null
+    private final String mergeSql;
+    private final String selectByPrimaryKeySql;
+
+    private TableMeta(Class<?> cl) {
+        DBTable table = cl.getAnnotation(DBTable.class);
+        if (table == null) {
+            throw new IllegalArgumentException("No DBTable annotation in class " + cl.getName());
+        }
+        this.type = cl;
+        this.tableName = table.name().length() < 1 ? cl.getSimpleName().toUpperCase() : table.name();
+
+        List<ColumnMeta> cols = new ArrayList<>();
+        Map<String, ColumnMeta> byName = new LinkedHashMap<>();
+        List<ColumnMeta> keys = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(64); // 所有列共用
+        for (Field field : cl.getDeclaredFields()) {
+            if (field.isSynthetic() || Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            ColumnMeta column = ColumnTypes.toColumn(field, sql);
+            if (column == null) {
+                continue; // 不是数据库表字段
+            }
+            if (byName.putIfAbsent(column.getName(), column) != null) {
+                throw new IllegalArgumentException("duplicate column " + column.getName() + " in class " + cl.getName());
+            }
+            cols.add(column);
+            if (column.isPrimaryKey()) {
+                keys.add(column);
+            }
+        }
+        this.columns = Collections.unmodifiableList(cols);
+        this.columnsByName = Collections.unmodifiableMap(byName);
+        this.primaryKeys = Collections.unmodifiableList(keys);
+        this.indexes = Collections.unmodifiableList(buildIndexes(cl));
+        this.allIndexes = buildAllIndexes();
+        this.createTableSql = buildCreateTable();
+        this.insertSql = buildInsert();
+        this.mergeSql = keys.isEmpty() ? null : buildMerge();
+        this.selectByPrimaryKeySql = keys.isEmpty() ? null : buildSelectByPrimaryKey();
+    }
+
+    /**
+     * 先处理类上的 @Index，再按字段顺序处理字段上的 @Index，索引名不能重复
+     */
+    private List<IndexMeta> buildIndexes(Class<?> cl) {
+        List<IndexMeta> result = new ArrayList<>();
+        for (Index index : cl.getAnnotationsByType(Index.class)) {
+            if (index.columns().length == 0) {
+                throw new IllegalArgumentException("@Index on class " + cl.getName() + " must specify columns");
+            }
+            result.add(newIndex(index, null));
+        }
+        for (ColumnMeta column : columns) {
+            for (Index index : column.getField().getAnnotationsByType(Index.class)) {
+                result.add(newIndex(index, column));
+            }
+        }
+        Set<String> names = new HashSet<>();
+        for (IndexMeta index : result) {
+            if (!names.add(index.getName())) {
+                throw new IllegalArgumentException("duplicate index " + index.getName() + " in class " + cl.getName());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * first 为字段上的 @Index 所在的列，作为索引的第一列；类上的 @Index 为 null
+     */
+    private IndexMeta newIndex(Index index, ColumnMeta first) {
+        List<ColumnMeta> cols = new ArrayList<>();
+        if (first != null) {
+            cols.add(first);
+        }
+        for (String name : index.columns()) {
+            ColumnMeta column = columnsByName.get(name);
+            if (column == null) {
+                throw new IllegalArgumentException("unknown column " + name + " in @Index of table " + tableName);
+            }
+            if (cols.contains(column)) {
+                throw new IllegalArgumentException("duplicate column " + name + " in @Index of table " + tableName);
+            }
+            cols.add(column);
+        }
+        if (index.order().length > cols.size()) {
+            throw new IllegalArgumentException("@Index of table " + tableName + " has more orders than columns");
+        }
+        List<Index.Order> orders = new ArrayList<>(cols.size());
+        for (int i = 0; i < cols.size(); i++) {
+            orders.add(i < index.order().length ? index.order()[i] : Index.Order.ASC);
+        }
+        String name = index.name();
+        if (name.length() < 1) {
+            StringBuilder sb = new StringBuilder("IDX_").append(tableName);
+            for (ColumnMeta column : cols) {
+                sb.append('_').append(column.getName());
+            }
+            name = sb.toString();
+        }
+        return new IndexMeta(tableName, name, cols, orders, index.unique(), false);
+    }
+
+    private List<IndexMeta> buildAllIndexes() {
+        List<IndexMeta> result = new ArrayList<>(indexes);
+        if (!primaryKeys.isEmpty()) {
+            result.add(implicitIndex("PK_" + tableName, new ArrayList<>(primaryKeys)));
+        }
+        for (ColumnMeta column : columns) {
+            if (column.isUnique()) {
+                result.add(implicitIndex("UK_" + tableName + "_" + column.getName(),
+                        new ArrayList<>(Collections.singletonList(column))));
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private IndexMeta implicitIndex(String name, List<ColumnMeta> cols) {
+        return new IndexMeta(tableName, name, cols, Collections.nCopies(cols.size(), Index.Order.ASC), true, true);
+    }
+
+    private String buildCreateTable() {
+        StringBuilder createCommand = new StringBuilder(64 + columns.size() * 32);
+        createCommand.append("CREATE TABLE ").append(tableName).append('(');
+        for (int i = 0; i < columns.size(); i++) {
+            createCommand.append(i == 0 ? "\n    " : ",\n    ").append(columns.get(i).getDefinition());
+        }
+        return createCommand.append(");").toString();
+    }
+
+    private String buildInsert() {
+        StringBuilder sql = new StringBuilder(32 + columns.size() * 16);
+        sql.append("INSERT INTO ").append(tableName);
+        appendColumnsAndValues(sql);
+        return sql.toString();
+    }
+
+    /**
+     * MERGE INTO T (A, B) KEY (A) VALUES (?, ?)，主键存在时更新，否则插入（H2 等数据库支持的语法）
+     */
+    private String buildMerge() {
+        StringBuilder sql = new StringBuilder(48 + columns.size() * 16);
+        sql.append("MERGE INTO ").append(tableName);
+        int mark = sql.length();
+        appendColumnsAndValues(sql);
+        StringBuilder key = new StringBuilder(" KEY (");
+        for (int i = 0; i < primaryKeys.size(); i++) {
+            key.append(i == 0 ? "" : ", ").append(primaryKeys.get(i).getName());
+        }
+        sql.insert(sql.indexOf(" VALUES", mark), key.append(')'));
+        return sql.toString();
+    }
+
+    private String buildSelectByPrimaryKey() {
+        StringBuilder sql = new StringBuilder(48 + columns.size() * 16).append("SELECT ");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(columns.get(i).getName());
+        }
+        sql.append(" FROM ").append(tableName).append(" WHERE ");
+        for (int i = 0; i < primaryKeys.size(); i++) {
+            sql.append(i == 0 ? "" : " AND ").append(primaryKeys.get(i).getName()).append(" = ?");
+        }
+        return sql.toString();
+    }
+
+    private void appendColumnsAndValues(StringBuilder sql) {
+        sql.append(" (");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(columns.get(i).getName());
+        }
+        sql.append(") VALUES (");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(')');
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * 按字段声明顺序排列的所有列
+     */
+    public List<ColumnMeta> getColumns() {
+        return columns;
+    }
+
+    /**
+     * 通过列名获取列，不存在时返回 null
+     */
+    public ColumnMeta getColumn(String name) {
+        return columnsByName.get(name);
+    }
+
+    /**
+     * 主键列，没有主键时为空列表，多个列组成联合主键
+     */
+    public List<ColumnMeta> getPrimaryKeys() {
+        return primaryKeys;
+    }
+
+    /**
+     * 单列主键，没有主键时返回 null
+     * @throws IllegalStateException 联合主键
+     */
+    public ColumnMeta getPrimaryKey() {
+        if (primaryKeys.size() > 1) {
+            throw new IllegalStateException("table " + tableName + " has a composite primary key");
+        }
+        return primaryKeys.isEmpty() ? null : primaryKeys.get(0);
+    }
+
+    public String getCreateTableSql() {
+        return createTableSql;
+    }
+
+    /**
+     * @Index 声明的索引，不包括主键与 unique 约束带来的隐式索引
+     */
+    public List<IndexMeta> getIndexes() {
+        return indexes;
+    }
+
+    /**
+     * 所有声明索引的 CREATE INDEX 语句，需要在 CREATE TABLE 之后执行
+     */
+    public List<String> getCreateIndexSqls() {
+        List<String> sqls = new ArrayList<>(indexes.size());
+        for (IndexMeta index : indexes) {
+            sqls.add(index.getCreateIndexSql());
+        }
+        return sqls;
+    }
+
+    /**
+     * 查找能用于 filterColumns 上等值过滤的索引（包括主键与 unique 约束），
+     * 索引的第一列必须在过滤条件中，有多个时返回能用上的前缀最长的一个，没有时返回 null
+     * @throws IllegalArgumentException 列不存在
+     */
+    public IndexMeta findIndex(String... filterColumns) {
+        List<ColumnMeta> filter = new ArrayList<>(filterColumns.length);
+        for (String name : filterColumns) {
+            ColumnMeta column = columnsByName.get(name);
+            if (column == null) {
+                throw new IllegalArgumentException("unknown column " + name + " in table " + tableName);
+            }
+            filter.add(column);
+        }
+        IndexMeta best = null;
+        int bestLength = 0;
+        for (IndexMeta index : allIndexes) {
+            int length = index.prefixLength(filter);
+            if (length > bestLength) {
+                best = index;
+                bestLength = length;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * INSERT 语句，参数顺序与 getColumns 一致
+     */
+    public String getInsertSql() {
+        return insertSql;
+    }
+
+    /**
+     * 以主键为 KEY 的 MERGE 语句，参数顺序与 getColumns 一致
+     * @throws IllegalStateException 表没有主键
+     */
+    public String getMergeSql() {
+        if (mergeSql == null) {
+            throw new IllegalStateException("table " + tableName + " has no primary key");
+        }
+        return mergeSql;
+    }
+
+    /**
+     * 按主键查询单行的语句，参数顺序与 getPrimaryKeys 一致
+     * @throws IllegalStateException 表没有主键
+     */
+    public String getSelectByPrimaryKeySql() {
+        if (selectByPrimaryKeySql == null) {
+            throw new IllegalStateException("table " + tableName + " has no primary key");
+        }
+        return selectByPrimaryKeySql;
+    }
+
+    /**
+     * 实体对象的主键值，单列主键为列的值，联合主键为按 getPrimaryKeys 顺序排列的 List
+     * @throws IllegalStateException 表没有主键
+     */
+    public Object primaryKeyOf(Object entity) {
+        if (primaryKeys.isEmpty()) {
+            throw new IllegalStateException("table " + tableName + " has no primary key");
+        }
+        if (primaryKeys.size() == 1) {
+            return primaryKeys.get(0).getValue(entity);
+        }
+        Object[] values = new Object[primaryKeys.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = primaryKeys.get(i).getValue(entity);
+        }
+        return Arrays.asList(values);
+    }
+
+    @Override
+    public String toString() {
+        return createTableSql;
+    }
+}
@@ -0,0 +1,28 @@
+package anno.orm;
+
+import anno.orm.annos.Constraints;
+import anno.orm.annos.DBTable;
+import anno.orm.annos.Index;
+import anno.orm.annos.SQLDecimal;
+import anno.orm.annos.SQLLong;
+import anno.orm.annos.SQLString;
+import anno.orm.annos.SQLTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@DBTable(name = "TRANSFER")
+public class Transfer {
+    @SQLLong(constraints = @Constraints(primaryKey = true))
+    public long id;
+
+    @SQLString(value = 30, constraints = @Constraints(allowNull = false))
+    @Index
+    public String reference; // 对应 MEMBER.REFERENCE
+
+    @SQLDecimal(precision = 12, scale = 2, constraints = @Constraints(allowNull = false))
+    public BigDecimal amount;
+
+    @SQLTimestamp(name = "CREATED_AT")
+    public LocalDateTime createdAt;
+}
@@ -0,0 +1,43 @@
+package anno.orm.annos;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/*
+使用例子：
+
+@DBTable(name = "MEMBER")
+@Index(columns = {"AGE", "LASTNAME"}, order = Index.Order.DESC) // 联合索引，AGE 降序
+public class Member {
+    @SQLString(value = 50)
+    @Index // 单列索引 IDX_MEMBER_LASTNAME
+    String lastName;
+
+    @SQLString(value = 30)
+    @Index(columns = "LASTNAME", unique = true) // 以当前字段开头的联合索引 (FIRSTNAME, LASTNAME)
+    String firstName;
+}
+
+// 生成
+CREATE INDEX IDX_MEMBER_AGE_LASTNAME ON MEMBER (AGE DESC, LASTNAME);
+CREATE INDEX IDX_MEMBER_LASTNAME ON MEMBER (LASTNAME);
+CREATE UNIQUE INDEX IDX_MEMBER_FIRSTNAME_LASTNAME ON MEMBER (FIRSTNAME, LASTNAME);
+ */
+
+@Target({ElementType.TYPE, ElementType.FIELD})
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(Indexes.class)
+public @interface Index {
+    String name() default "";  // 未指定时为 IDX_表名_列名
+    String[] columns() default {};  // 类上必须指定；字段上为当前列之后的其他列
+    Order[] order() default {};  // 与列一一对应，缺少的列为 ASC
+    boolean unique() default false;
+
+    enum Order {
+        ASC, DESC
+    }
+}
@@ -0,0 +1,25 @@
+package anno.orm.annos;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/*
+使用例子：
+
+@SQLDecimal(precision = 12, scale = 2)
+BigDecimal amount; // AMOUNT DECIMAL(12, 2)
+
+precision 为总位数，scale 为小数位数；字段类型为 BigDecimal
+ */
+
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SQLDecimal {
+    int precision() default 19;
+    int scale() default 2;
+    String name() default "";
+    Constraints constraints() default @Constraints;
+}
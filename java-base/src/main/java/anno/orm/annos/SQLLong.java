@@ -0,0 +1,23 @@
+package anno.orm.annos;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/*
+使用例子：
+
+@SQLLong(constraints = @Constraints(primaryKey = true))
+Long id; // ID BIGINT PRIMARY KEY
+
+字段可以是 long 或 Long，映射时 long 字段通过 ResultSet.getLong 直接赋值
+ */
+
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SQLLong {
+    String name() default "";
+    Constraints constraints() default @Constraints;
+}
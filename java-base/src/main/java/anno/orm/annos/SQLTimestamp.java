@@ -0,0 +1,23 @@
+package anno.orm.annos;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/*
+使用例子：
+
+@SQLTimestamp(constraints = @Constraints(allowNull = false))
+LocalDateTime createdAt; // CREATEDAT TIMESTAMP NOT NULL
+
+字段类型为 LocalDateTime 或 java.sql.Timestamp
+ */
+
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SQLTimestamp {
+    String name() default "";
+    Constraints constraints() default @Constraints;
+}
@@ -0,0 +1,104 @@
+package anno.orm;
+
+import anno.orm.annos.Constraints;
+import anno.orm.annos.DBTable;
+import anno.orm.annos.SQLInteger;
+import anno.orm.annos.SQLLong;
+import anno.orm.annos.SQLString;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Types;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ColumnarTableTest {
+
+    @Target(ElementType.FIELD)
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface SQLEmail {
+        Constraints constraints() default @Constraints;
+    }
+
+    @DBTable(name = "CONTACT")
+    static class Contact {
+        @SQLString(value = 20, constraints = @Constraints(primaryKey = true))
+        String name;
+
+        @SQLEmail
+        String email;
+    }
+
+    @DBTable(name = "COUNTER")
+    static class Counter {
+        @SQLInteger(constraints = @Constraints(primaryKey = true))
+        Integer id;
+    }
+
+    @DBTable(name = "TOTAL")
+    static class Total {
+        @SQLLong(constraints = @Constraints(primaryKey = true))
+        Long id;
+    }
+
+    @Test
+    void intKeyMustBeExact() {
+        for (ColumnarTable<Counter> table : Arrays.asList(ColumnarTable.onHeap(Counter.class),
+                ColumnarTable.offHeap(Counter.class, 16))) {
+            Counter counter = new Counter();
+            counter.id = 5;
+            int row = table.add(counter);
+            assertEquals(row, table.findRow(5));
+            assertEquals(row, table.findRow(5L));
+            assertEquals(row, table.findRow(5.0));
+            assertEquals(row, table.findRow(new BigDecimal("5.00")));
+            assertEquals(-1, table.findRow(4294967301L));
+            assertEquals(-1, table.findRow(5.5));
+            assertEquals(-1, table.findRow(BigInteger.ONE.shiftLeft(64).add(BigInteger.valueOf(5))));
+        }
+    }
+
+    @Test
+    void longKeyMustBeExact() {
+        ColumnarTable<Total> table = ColumnarTable.onHeap(Total.class);
+        Total total = new Total();
+        total.id = Long.MAX_VALUE;
+        int row = table.add(total);
+        assertEquals(row, table.findRow(Long.MAX_VALUE));
+        assertEquals(-1, table.findRow(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE.shiftLeft(64))));
+        assertEquals(-1, table.findRow(0x1p63));
+    }
+
+    @Test
+    void registeredVarcharColumnIsUnsupported() {
+        ColumnTypes.register(SQLEmail.class, new ColumnType<SQLEmail>() {
+            @Override
+            public String name(SQLEmail ann) {
+                return "";
+            }
+
+            @Override
+            public Constraints constraints(SQLEmail ann) {
+                return ann.constraints();
+            }
+
+            @Override
+            public void appendSqlType(SQLEmail ann, StringBuilder sql) {
+                sql.append("VARCHAR(254)");
+            }
+
+            @Override
+            public int jdbcType(SQLEmail ann) {
+                return Types.VARCHAR;
+            }
+        });
+        assertThrows(IllegalArgumentException.class, () -> ColumnarTable.onHeap(Contact.class));
+    }
+}
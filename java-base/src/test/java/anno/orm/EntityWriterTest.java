@@ -0,0 +1,121 @@
+package anno.orm;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * EntityWriter 在 H2 内存数据库上的写入、MERGE 与出错回滚
+ */
+class EntityWriterTest {
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:writer");
+        try (Statement st = connection.createStatement()) {
+            st.execute(TableMeta.of(Member.class).getCreateTableSql());
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP TABLE MEMBER");
+        }
+        connection.close();
+    }
+
+    @Test
+    void insert() throws SQLException {
+        try (EntityWriter<Member> writer = EntityWriter.insert(connection, Member.class)
+                .withBatchSize(3).withCommitSize(4)) {
+            writer.writeAll(members("x", 10));
+            assertEquals(9, writer.getWrittenRows());
+        }
+        assertEquals(10, count("x%"));
+        assertTrue(connection.getAutoCommit());
+    }
+
+    @Test
+    void upsert() throws SQLException {
+        try (EntityWriter<Member> writer = EntityWriter.insert(connection, Member.class)) {
+            writer.writeAll(members("x", 5));
+        }
+        List<Member> updated = members("x", 7);
+        for (Member m : updated) {
+            m.age = 99;
+        }
+        try (EntityWriter<Member> writer = EntityWriter.upsert(connection, Member.class).withBatchSize(2)) {
+            writer.writeAll(updated);
+        }
+        assertEquals(7, count("x%"));
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM MEMBER WHERE AGE = 99")) {
+            rs.next();
+            assertEquals(7, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void rollbackWhenBatchFails() throws SQLException {
+        List<Member> rows = members("y", 6);
+        rows.get(4).reference = rows.get(0).reference; // 第二批中的主键冲突
+        EntityWriter<Member> failed = EntityWriter.insert(connection, Member.class).withBatchSize(3);
+        assertThrows(SQLException.class, () -> {
+            try (EntityWriter<Member> writer = failed) {
+                writer.writeAll(rows);
+            }
+        });
+        assertThrows(IllegalStateException.class, () -> failed.write(rows.get(5)));
+        assertTrue(connection.getAutoCommit());
+        assertEquals(0, count("y%"));
+    }
+
+    @Test
+    void committedRowsSurviveFailure() throws SQLException {
+        List<Member> rows = members("z", 6);
+        rows.get(4).reference = rows.get(0).reference;
+        assertThrows(SQLException.class, () -> {
+            try (EntityWriter<Member> writer = EntityWriter.insert(connection, Member.class)
+                    .withBatchSize(3).withCommitSize(3)) {
+                writer.writeAll(rows);
+            }
+        });
+        assertEquals(3, count("z%"));
+        assertTrue(connection.getAutoCommit());
+    }
+
+    private int count(String referencePattern) throws SQLException {
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM MEMBER WHERE REFERENCE LIKE '" + referencePattern + "'")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static List<Member> members(String prefix, int n) {
+        List<Member> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Member m = new Member();
+            m.reference = prefix + i;
+            m.firstName = "first" + i;
+            m.lastName = "last" + i;
+            m.age = i;
+            list.add(m);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,25 @@
+package com.cjm.queue.bench;
+
+import java.util.Collection;
+
+/**
+ * 基准测试与压力测试对各种队列的统一访问方式，超时的单位为纳秒
+ */
+public interface BenchQueue {
+
+    void put(Object item) throws InterruptedException;
+
+    Object take() throws InterruptedException;
+
+    boolean offer(Object item, long timeoutNanos) throws InterruptedException;
+
+    /**
+     * 超时返回 null
+     */
+    Object poll(long timeoutNanos) throws InterruptedException;
+
+    /**
+     * 一次取出最多 max 个元素；队列为空时大多数实现立即返回 0，MArrayBlockingQueue 会等待直到有元素
+     */
+    int drainTo(Collection<Object> c, int max) throws InterruptedException;
+}
@@ -0,0 +1,62 @@
+package com.cjm.queue.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * benchmarks.jar 的入口，接受 JMH 的全部命令行参数，并始终开启 GC profiler 输出分配速率。
+ *
+ * 没有通过 -tg 指定线程比例时，依次运行 -Dshapes 中的每种比例（默认 1:1,4:1,1:4,4:4），
+ * 1:1 时额外加入只支持单生产者单消费者的 SPSC。
+ *
+ * 第一个参数为 stress 时运行 QueueStressTest，其余参数交给它。
+ *
+ * mvn -f multi-thread/pom.xml install
+ * mvn -f multi-thread/benchmark/pom.xml package
+ * java -jar multi-thread/benchmark/target/benchmarks.jar -p capacity=64
+ * java -jar multi-thread/benchmark/target/benchmarks.jar stress 500
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("stress")) {
+            String[] rest = new String[args.length - 1];
+            System.arraycopy(args, 1, rest, 0, rest.length);
+            QueueStressTest.main(rest);
+            return;
+        }
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.getThreadGroups().hasValue()) {
+            run(cli, null);
+            return;
+        }
+        for (String shape : System.getProperty("shapes", "1:1,4:1,1:4,4:4").split(",")) {
+            String[] counts = shape.trim().split(":");
+            run(cli, new int[]{Integer.parseInt(counts[0]), Integer.parseInt(counts[1])});
+        }
+    }
+
+    private static void run(CommandLineOptions cli, int[] threadGroups) throws Exception {
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(cli);
+        if (cli.getIncludes().isEmpty()) {
+            options.include(QueueBenchmark.class.getSimpleName());
+        }
+        if (threadGroups != null) {
+            options.threadGroups(threadGroups);
+            if (threadGroups[0] == 1 && threadGroups[1] == 1 && !cli.getParameter("type").hasValue()) {
+                List<String> types = new ArrayList<>();
+                for (QueueType type : QueueType.values()) {
+                    types.add(type.name());
+                }
+                options.param("type", types.toArray(new String[0]));
+            }
+        }
+        new Runner(options.addProfiler(GCProfiler.class).build()).run();
+    }
+}
@@ -0,0 +1,82 @@
+package com.cjm.queue.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 生产者 / 消费者吞吐量与单次操作延迟的基准测试：
+ *   put  生产者线程放入元素，payload 为 0 时放入同一个对象，否则每次创建 payload 字节的数组；
+ *   take 消费者线程取出元素。
+ *
+ * 两个方法属于同一个 group，每组默认 1 个生产者、1 个消费者，通过 JMH 的 -tg 参数改变比例，
+ * BenchmarkMain 依次运行 1:1、N:1、1:N、N:M。SampleTime 模式给出 p50 / p99 / p99.99 延迟，包含等待时间。
+ *
+ * 队列满或空时以 10 毫秒为单位超时重试，每轮测量结束时生产者与消费者都能退出，不会互相等待。
+ */
+@State(Scope.Group)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueBenchmark {
+    private static final long TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final Object ITEM = new Object();
+
+    @Param({"M_BLOCKING", "M_ARRAY_BLOCKING", "MPMC", "ARRAY_BLOCKING", "LINKED_BLOCKING", "LINKED_TRANSFER"})
+    private QueueType type;
+
+    @Param({"64", "4096"})
+    private int capacity;
+
+    @Param({"0", "256"})
+    private int payload;
+
+    private BenchQueue queue;
+
+    /**
+     * 每轮测量使用新的队列，上一轮剩下的元素不影响下一轮
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        queue = type.create(capacity);
+    }
+
+    @Benchmark
+    @Group("queue")
+    public boolean put(Control control) throws InterruptedException {
+        Object item = payload == 0 ? ITEM : new byte[payload];
+        while (!control.stopMeasurement) {
+            if (queue.offer(item, TIMEOUT_NANOS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    @Group("queue")
+    public Object take(Control control) throws InterruptedException {
+        while (!control.stopMeasurement) {
+            Object item = queue.poll(TIMEOUT_NANOS);
+            if (item != null) {
+                return item;
+            }
+        }
+        return null;
+    }
+}
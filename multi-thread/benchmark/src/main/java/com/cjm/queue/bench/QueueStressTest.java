@@ -0,0 +1,165 @@
+package com.cjm.queue.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 随机化的并发正确性检查，每一轮随机选择队列、生产者与消费者的数量、容量以及元素个数：
+ *   1. 每个元素编码为 生产者编号 << 32 | 序号，生产者随机使用 put 或带超时的 offer；
+ *   2. 消费者随机使用 take、带超时的 poll 或 drainTo，记录每个元素是否出现过，重复出现即为错误；
+ *   3. 同一个消费者看到的同一个生产者的序号必须递增（FIFO）；
+ *   4. 所有元素取完后检查没有遗漏、队列为空，超过 60 秒没有完成视为死锁。
+ *
+ * 参数：[轮数，默认 200] [随机种子]，失败时以 1 退出。
+ */
+public class QueueStressTest {
+    private static final int[] CAPACITIES = {1, 2, 3, 7, 16, 64, 1024};
+
+    public static void main(String[] args) throws InterruptedException {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        System.out.println("stress test: rounds=" + rounds + ", seed=" + seed);
+        Random random = new Random(seed);
+        QueueType[] types = QueueType.values();
+        for (int round = 1; round <= rounds; round++) {
+            QueueType type = types[random.nextInt(types.length)];
+            int producers = type.isMultiThreaded() ? 1 + random.nextInt(4) : 1;
+            int consumers = type.isMultiThreaded() ? 1 + random.nextInt(4) : 1;
+            int capacity = CAPACITIES[random.nextInt(CAPACITIES.length)];
+            int items = 1 + random.nextInt(20_000);
+            String name = String.format("round %d: %s %d:%d capacity=%d items=%d", round, type, producers, consumers,
+                    capacity, items);
+            String error = runRound(type, producers, consumers, capacity, items);
+            if (error != null) {
+                System.out.println(name + " FAILED: " + error);
+                System.exit(1);
+            }
+            if (round % 20 == 0 || round == rounds) {
+                System.out.println(name + " ok");
+            }
+        }
+        System.out.println("all " + rounds + " rounds passed");
+    }
+
+    /**
+     * 运行一轮，返回错误描述，没有错误时返回 null
+     */
+    static String runRound(QueueType type, int producers, int consumers, int capacity, int itemsPerProducer)
+            throws InterruptedException {
+        BenchQueue queue = type.create(capacity);
+        int total = producers * itemsPerProducer;
+        AtomicReferenceArray<Boolean> seen = new AtomicReferenceArray<>(total);
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicReference<String> error = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int p = 0; p < producers; p++) {
+            final long producer = p;
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    for (int seq = 0; seq < itemsPerProducer && error.get() == null; seq++) {
+                        Long item = producer << 32 | seq;
+                        if (random.nextBoolean()) {
+                            queue.put(item);
+                        } else {
+                            while (!queue.offer(item, random.nextInt(100_000))) {
+                                if (error.get() != null) {
+                                    return;
+                                }
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    // 出错后被中断
+                }
+            }, "producer-" + p));
+        }
+
+        List<Thread> consumerThreads = new ArrayList<>();
+        for (int c = 0; c < consumers; c++) {
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int[] last = new int[producers];
+                Arrays.fill(last, -1);
+                List<Object> batch = new ArrayList<>();
+                try {
+                    while (consumed.get() < total && error.get() == null) {
+                        batch.clear();
+                        int mode = random.nextInt(3);
+                        if (mode == 0) {
+                            batch.add(queue.take());
+                        } else if (mode == 1) {
+                            Object item = queue.poll(random.nextInt(100_000));
+                            if (item != null) {
+                                batch.add(item);
+                            }
+                        } else {
+                            queue.drainTo(batch, 1 + random.nextInt(32));
+                        }
+                        for (Object item : batch) {
+                            check((Long) item, itemsPerProducer, seen, last, error);
+                        }
+                        consumed.addAndGet(batch.size());
+                    }
+                } catch (InterruptedException e) {
+                    // 全部取完后，阻塞在 take / drainTo 中的消费者被中断
+                }
+            }, "consumer-" + c);
+            consumerThreads.add(thread);
+            threads.add(thread);
+        }
+
+        for (Thread thread : threads) {
+            thread.setDaemon(true);
+            thread.start();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (consumed.get() < total && error.get() == null) {
+            if (System.nanoTime() - deadline > 0) {
+                error.set("no progress after 60s, consumed " + consumed.get() + " of " + total);
+                break;
+            }
+            Thread.sleep(1);
+        }
+        for (Thread thread : consumerThreads) {
+            thread.interrupt();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        if (error.get() != null) {
+            return error.get();
+        }
+        for (int i = 0; i < total; i++) {
+            if (seen.get(i) == null) {
+                return "lost item of producer " + i / itemsPerProducer + " seq " + i % itemsPerProducer;
+            }
+        }
+        Object extra = queue.poll(0);
+        if (extra != null) {
+            return "unexpected item left in queue: " + extra;
+        }
+        return null;
+    }
+
+    private static void check(long item, int itemsPerProducer, AtomicReferenceArray<Boolean> seen, int[] last,
+                              AtomicReference<String> error) {
+        int producer = (int) (item >>> 32);
+        int seq = (int) item;
+        if (!seen.compareAndSet(producer * itemsPerProducer + seq, null, Boolean.TRUE)) {
+            error.compareAndSet(null, "duplicate item of producer " + producer + " seq " + seq);
+        }
+        if (seq <= last[producer]) {
+            error.compareAndSet(null, "out of order: producer " + producer + " seq " + seq + " after " + last[producer]);
+        }
+        last[producer] = seq;
+    }
+}
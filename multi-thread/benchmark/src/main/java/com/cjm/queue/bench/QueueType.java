@@ -0,0 +1,196 @@
+package com.cjm.queue.bench;
+
+import component.LockFreeQueue;
+import component.MArrayBlockingQueue;
+import component.MBlockingQueue;
+import component.MpmcArrayQueue;
+import component.SpscArrayQueue;
+import component.WaitStrategy;
+
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 参与比较的队列。LINKED_TRANSFER 是无界队列，capacity 对它无效；
+ * SPSC 只能有一个生产者与一个消费者，只在 1:1 时使用
+ */
+public enum QueueType {
+    M_BLOCKING {
+        @Override
+        public BenchQueue create(int capacity) {
+            return wrap(new MBlockingQueue<>(capacity));
+        }
+    },
+    M_ARRAY_BLOCKING {
+        @Override
+        public BenchQueue create(int capacity) {
+            MArrayBlockingQueue<Object> queue = new MArrayBlockingQueue<>(capacity);
+            return new BenchQueue() {
+                @Override
+                public void put(Object item) throws InterruptedException {
+                    queue.enqueue(item);
+                }
+
+                @Override
+                public Object take() throws InterruptedException {
+                    return queue.dequeue();
+                }
+
+                @Override
+                public boolean offer(Object item, long timeoutNanos) throws InterruptedException {
+                    return queue.offer(item, timeoutNanos, TimeUnit.NANOSECONDS);
+                }
+
+                @Override
+                public Object poll(long timeoutNanos) throws InterruptedException {
+                    return queue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+                }
+
+                @Override
+                public int drainTo(Collection<Object> c, int max) throws InterruptedException {
+                    return queue.drainTo(c, max);
+                }
+            };
+        }
+    },
+    MPMC {
+        @Override
+        public BenchQueue create(int capacity) {
+            return wrap(new MpmcArrayQueue<>(capacity, WaitStrategy.yielding()));
+        }
+    },
+    SPSC {
+        @Override
+        public BenchQueue create(int capacity) {
+            return wrap(new SpscArrayQueue<>(capacity, WaitStrategy.yielding()));
+        }
+    },
+    ARRAY_BLOCKING {
+        @Override
+        public BenchQueue create(int capacity) {
+            return wrap(new ArrayBlockingQueue<>(capacity));
+        }
+    },
+    LINKED_BLOCKING {
+        @Override
+        public BenchQueue create(int capacity) {
+            return wrap(new LinkedBlockingQueue<>(capacity));
+        }
+    },
+    LINKED_TRANSFER {
+        @Override
+        public BenchQueue create(int capacity) {
+            return wrap(new LinkedTransferQueue<>());
+        }
+    };
+
+    public abstract BenchQueue create(int capacity);
+
+    /**
+     * 是否支持多个生产者或多个消费者
+     */
+    public boolean isMultiThreaded() {
+        return this != SPSC;
+    }
+
+    /**
+     * 等待 50 微秒，已超过 deadline 时返回 false
+     */
+    private static boolean pause(long deadline) throws InterruptedException {
+        if (System.nanoTime() - deadline >= 0) {
+            return false;
+        }
+        LockSupport.parkNanos(50_000);
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        return true;
+    }
+
+    private static BenchQueue wrap(BlockingQueue<Object> queue) {
+        return new BenchQueue() {
+            @Override
+            public void put(Object item) throws InterruptedException {
+                queue.put(item);
+            }
+
+            @Override
+            public Object take() throws InterruptedException {
+                return queue.take();
+            }
+
+            @Override
+            public boolean offer(Object item, long timeoutNanos) throws InterruptedException {
+                return queue.offer(item, timeoutNanos, TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public Object poll(long timeoutNanos) throws InterruptedException {
+                return queue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public int drainTo(Collection<Object> c, int max) {
+                return queue.drainTo(c, max);
+            }
+        };
+    }
+
+    /**
+     * 无锁队列没有带超时的操作，按 deadline 重试非阻塞的 offer / poll
+     */
+    private static BenchQueue wrap(LockFreeQueue<Object> queue) {
+        return new BenchQueue() {
+            @Override
+            public void put(Object item) throws InterruptedException {
+                queue.enqueue(item);
+            }
+
+            @Override
+            public Object take() throws InterruptedException {
+                return queue.dequeue();
+            }
+
+            @Override
+            public boolean offer(Object item, long timeoutNanos) throws InterruptedException {
+                long deadline = System.nanoTime() + timeoutNanos;
+                for (int spins = 0; !queue.offer(item); spins++) {
+                    if (spins > 100 && !pause(deadline)) {
+                        return false;
+                    }
+                    Thread.onSpinWait();
+                }
+                return true;
+            }
+
+            @Override
+            public Object poll(long timeoutNanos) throws InterruptedException {
+                long deadline = System.nanoTime() + timeoutNanos;
+                Object item;
+                for (int spins = 0; (item = queue.poll()) == null; spins++) {
+                    if (spins > 100 && !pause(deadline)) {
+                        return null;
+                    }
+                    Thread.onSpinWait();
+                }
+                return item;
+            }
+
+            @Override
+            public int drainTo(Collection<Object> c, int max) {
+                int n = 0;
+                Object item;
+                while (n < max && (item = queue.poll()) != null) {
+                    c.add(item);
+                    n++;
+                }
+                return n;
+            }
+        };
+    }
+}
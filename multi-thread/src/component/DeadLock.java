@@ -1,15 +1,86 @@
 package component;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * 加锁顺序相反导致的死锁，同时作为 DeadlockDetector 的测试用例：
+ *   test             两个线程以相反的顺序 synchronized 两个对象，由 findDeadlockedThreads 发现；
+ *   testInstrumented 同样的场景换成 InstrumentedLock，加锁顺序图在真正死锁之前就能报告环。
+ *
+ * main 检查报告中出现 lockA -> lockB 的环，且死锁报告覆盖 thread1 ~ thread4，
+ * 超时或检查失败时以退出码 1 结束。线程都是守护线程，检查完成后 main 直接退出。
+ */
 public class DeadLock {
+    private static final String[] THREADS = {"thread1", "thread2", "thread3", "thread4"};
+
     private final Object lock1 = new Object();
     private final Object lock2 = new Object();
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
         new DeadLock().test();
+        new DeadLock().testInstrumented();
+        Thread.sleep(1500); // 等待两组线程都进入死锁，一次检测就能全部发现
+
+        List<String> reports = new CopyOnWriteArrayList<>();
+        Semaphore received = new Semaphore(0);
+        String error;
+        try (DeadlockDetector detector = new DeadlockDetector(LockMonitor.global(), report -> {
+            System.out.println(report);
+            System.out.println();
+            reports.add(report);
+            received.release();
+        })) {
+            detector.start(500, TimeUnit.MILLISECONDS);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            error = check(reports);
+            // 两组死锁可能在不同的检测周期中发现，每收到一份报告重新检查一次
+            while (error != null && received.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                error = check(reports);
+            }
+            System.out.println(LockMonitor.global().report());
+        }
+        if (error != null) {
+            System.out.println("DeadLock FAILED: " + error);
+            System.exit(1);
+        }
+        System.out.println("DeadLock ok");
+    }
+
+    /**
+     * @return 报告不满足预期时的说明，满足时返回 null
+     */
+    private static String check(List<String> reports) {
+        boolean cycle = false;
+        Set<String> deadlocked = new HashSet<>();
+        for (String report : reports) {
+            if (report.startsWith("lock order cycle: ") && report.contains("lockA") && report.contains("lockB")) {
+                cycle = true;
+            } else if (report.startsWith("deadlock found between ")) {
+                for (String name : THREADS) {
+                    if (report.contains("\"" + name + "\"")) {
+                        deadlocked.add(name);
+                    }
+                }
+            }
+        }
+        if (!cycle) {
+            return "no lock order cycle between lockA and lockB";
+        }
+        if (deadlocked.size() < THREADS.length) {
+            return "deadlock reports cover only " + deadlocked + ", expected " + Arrays.toString(THREADS);
+        }
+        return null;
     }
 
     public void test() {
-        new Thread(() -> {
+        start(() -> {
             synchronized (lock1) {
                 try {
                     Thread.sleep(1000);
@@ -22,9 +93,9 @@ public class DeadLock {
                     e.printStackTrace();
                 }
             }
-        }).start();
+        }, "thread1");
 
-        new Thread(() -> {
+        start(() -> {
             synchronized (lock2) {
                 try {
                     Thread.sleep(1000);
@@ -37,6 +108,38 @@ public class DeadLock {
                     e.printStackTrace();
                 }
             }
-        }).start();
+        }, "thread2");
+    }
+
+    public void testInstrumented() {
+        Lock lockA = LockMonitor.global().newLock("lockA");
+        Lock lockB = LockMonitor.global().newLock("lockB");
+        start(() -> lockInOrder(lockA, lockB, "lockB"), "thread3");
+        start(() -> lockInOrder(lockB, lockA, "lockA"), "thread4");
+    }
+
+    private static void lockInOrder(Lock first, Lock second, String secondName) {
+        first.lock();
+        try {
+            Thread.sleep(1000);
+            System.out.println(Thread.currentThread().getName() + " 欲获取 " + secondName);
+            second.lock();
+            try {
+                System.out.println("获取 " + secondName + " 成功!");
+            } finally {
+                second.unlock();
+            }
+        } catch (InterruptedException e) {
+            System.out.println("暂停异常: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            first.unlock();
+        }
+    }
+
+    private static void start(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
     }
 }
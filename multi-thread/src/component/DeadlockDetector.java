@@ -0,0 +1,150 @@
+package component;
+
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 后台死锁检测：
+ *   1. 定期调用 ThreadMXBean.findDeadlockedThreads，找出因 synchronized 或 ReentrantLock 等互相等待的线程，
+ *      报告每个线程等待的锁、锁的持有者以及完整的调用栈；
+ *   2. 同时取出 LockMonitor 中新发现的加锁顺序环，顺序相反的加锁即使还没有死锁也会报告。
+ *
+ * 同一组死锁线程只报告一次。使用例子：
+ * DeadlockDetector detector = new DeadlockDetector(LockMonitor.global(), System.out::println);
+ * detector.start(1, TimeUnit.SECONDS);
+ */
+public class DeadlockDetector implements AutoCloseable {
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final LockMonitor monitor;
+    private final Consumer<String> listener;
+    private final Set<Set<Long>> reported = new HashSet<>();
+    private ScheduledExecutorService scheduler;
+
+    public DeadlockDetector(LockMonitor monitor, Consumer<String> listener) {
+        this.monitor = monitor;
+        this.listener = listener;
+    }
+
+    /**
+     * 启动守护线程，每隔 period 检测一次
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        if (scheduler != null) {
+            throw new IllegalStateException("detector already started");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "deadlock-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> detect().forEach(listener), period, period, unit);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * 立即检测一次，返回新发现的问题
+     */
+    public List<String> detect() {
+        List<String> reports = new ArrayList<>(monitor.drainLockOrderCycles());
+        long[] ids = threads.findDeadlockedThreads();
+        if (ids != null) {
+            Set<Long> key = new HashSet<>();
+            for (long id : ids) {
+                key.add(id);
+            }
+            synchronized (reported) {
+                if (!reported.add(key)) {
+                    return reports;
+                }
+            }
+            ThreadInfo[] infos = threads.getThreadInfo(ids, threads.isObjectMonitorUsageSupported(),
+                    threads.isSynchronizerUsageSupported());
+            StringBuilder sb = new StringBuilder("deadlock found between ").append(ids.length).append(" threads:");
+            Set<Thread> live = Thread.getAllStackTraces().keySet();
+            for (ThreadInfo info : infos) {
+                if (info != null) {
+                    append(sb, info);
+                    appendInstrumentedLocks(sb, info.getThreadId(), live);
+                }
+            }
+            reports.add(sb.toString());
+        }
+        return reports;
+    }
+
+    /**
+     * ThreadInfo.toString 只输出前 8 个栈帧，这里输出完整的调用栈以及每一帧上持有的锁
+     */
+    private static void append(StringBuilder sb, ThreadInfo info) {
+        sb.append("\n\"").append(info.getThreadName()).append("\" id=").append(info.getThreadId())
+                .append(' ').append(info.getThreadState());
+        if (info.getLockInfo() != null) {
+            sb.append(" waiting for ").append(describe(info.getLockInfo()));
+        }
+        if (info.getLockOwnerName() != null) {
+            sb.append(" held by \"").append(info.getLockOwnerName()).append("\" id=").append(info.getLockOwnerId());
+        }
+        StackTraceElement[] stack = info.getStackTrace();
+        MonitorInfo[] monitors = info.getLockedMonitors();
+        for (int i = 0; i < stack.length; i++) {
+            sb.append("\n    at ").append(stack[i]);
+            for (MonitorInfo m : monitors) {
+                if (m.getLockedStackDepth() == i) {
+                    sb.append("\n    - locked ").append(describe(m));
+                }
+            }
+        }
+        LockInfo[] synchronizers = info.getLockedSynchronizers();
+        if (synchronizers.length > 0) {
+            sb.append("\n    locked synchronizers: ").append(Arrays.toString(synchronizers));
+        }
+    }
+
+    /**
+     * ThreadMXBean 只能给出 ReentrantLock 内部的同步器对象，这里补充 InstrumentedLock 的名字
+     */
+    @SuppressWarnings("deprecation") // Thread.getId，需要兼容没有 threadId 的 JDK
+    private void appendInstrumentedLocks(StringBuilder sb, long threadId, Set<Thread> live) {
+        for (Thread thread : live) {
+            if (thread.getId() != threadId) {
+                continue;
+            }
+            List<String> holding = new ArrayList<>();
+            List<String> waiting = new ArrayList<>();
+            for (InstrumentedLock lock : monitor.getLocks()) {
+                if (lock.isOwnedBy(thread)) {
+                    holding.add(lock.getName());
+                }
+                if (lock.hasQueuedThread(thread)) {
+                    waiting.add(lock.getName());
+                }
+            }
+            if (!holding.isEmpty() || !waiting.isEmpty()) {
+                sb.append("\n    instrumented locks: holding ").append(holding).append(", waiting for ").append(waiting);
+            }
+        }
+    }
+
+    private static String describe(LockInfo lock) {
+        return lock.getClassName() + "@" + Integer.toHexString(lock.getIdentityHashCode());
+    }
+}
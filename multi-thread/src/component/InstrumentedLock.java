@@ -0,0 +1,263 @@
+package component;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 带统计的 ReentrantLock，通过 LockMonitor.newLock 按名字创建：
+ *   1. 获取次数，以及获取时锁已被其他线程持有的次数（竞争次数）；
+ *   2. 获取锁的等待时间、持有锁的时间的直方图，重入只计算最外层；
+ *   3. 阻塞获取前把 当前已持有的锁 -> 本锁 记录到 LockMonitor 的加锁顺序图中，用于发现顺序相反的加锁；
+ *   4. Condition.await 期间锁被释放，不计入持有时间。
+ *
+ * 使用例子：
+ * InstrumentedLock lock = LockMonitor.global().newLock("order-queue");
+ * MBlockingQueue<Order> queue = new MBlockingQueue<>(1000, lock);
+ * ...
+ * System.out.println(LockMonitor.global().report());
+ */
+public final class InstrumentedLock implements Lock {
+    private final String name;
+    private final ReentrantLock delegate;
+    private final LockMonitor monitor;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contentions = new LongAdder();
+    private final LongAdder failedTryLocks = new LongAdder();
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+    private final LatencyHistogram holdTimes = new LatencyHistogram();
+    // 最外层获取锁的时间，只由持有锁的线程读写
+    private long holdStart;
+    // 持有锁的线程，供 DeadlockDetector 在报告中给出锁的名字
+    private volatile Thread owner;
+
+    InstrumentedLock(String name, boolean fair, LockMonitor monitor) {
+        this.name = name;
+        this.delegate = new ReentrantLock(fair);
+        this.monitor = monitor;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isFair() {
+        return delegate.isFair();
+    }
+
+    public boolean isHeldByCurrentThread() {
+        return delegate.isHeldByCurrentThread();
+    }
+
+    @Override
+    public void lock() {
+        if (fastAcquire()) {
+            return;
+        }
+        long start = System.nanoTime();
+        delegate.lock();
+        acquired(System.nanoTime() - start);
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (fastAcquire()) {
+            return;
+        }
+        long start = System.nanoTime();
+        delegate.lockInterruptibly();
+        acquired(System.nanoTime() - start);
+    }
+
+    @Override
+    public boolean tryLock() {
+        // tryLock 失败时立即返回，不会因为加锁顺序死锁，不记录顺序
+        if (delegate.tryLock()) {
+            acquired(0);
+            return true;
+        }
+        failedTryLocks.increment();
+        return false;
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+        if (fastAcquire()) {
+            return true;
+        }
+        long start = System.nanoTime();
+        if (delegate.tryLock(time, unit)) {
+            acquired(System.nanoTime() - start);
+            return true;
+        }
+        failedTryLocks.increment();
+        return false;
+    }
+
+    /**
+     * 记录加锁顺序，锁空闲时直接获取；公平锁不能插队，只要有线程持有或排队就算作竞争
+     */
+    private boolean fastAcquire() {
+        if (delegate.isHeldByCurrentThread()) {
+            delegate.lock(); // 重入
+            acquisitions.increment();
+            return true;
+        }
+        monitor.beforeAcquire(this);
+        if (delegate.isFair() ? !delegate.isLocked() && !delegate.hasQueuedThreads() && delegate.tryLock()
+                : delegate.tryLock()) {
+            acquired(0);
+            return true;
+        }
+        contentions.increment();
+        return false;
+    }
+
+    private void acquired(long waitNanos) {
+        acquisitions.increment();
+        if (delegate.getHoldCount() == 1) {
+            waitTimes.record(waitNanos);
+            holdStart = System.nanoTime();
+            owner = Thread.currentThread();
+            monitor.acquired(this);
+        }
+    }
+
+    @Override
+    public void unlock() {
+        if (delegate.getHoldCount() == 1) {
+            holdTimes.record(System.nanoTime() - holdStart);
+            owner = null;
+            monitor.released(this);
+        }
+        delegate.unlock();
+    }
+
+    @Override
+    public Condition newCondition() {
+        return new InstrumentedCondition(delegate.newCondition());
+    }
+
+    boolean isOwnedBy(Thread thread) {
+        return owner == thread;
+    }
+
+    boolean hasQueuedThread(Thread thread) {
+        return delegate.hasQueuedThread(thread);
+    }
+
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    public long getContentions() {
+        return contentions.sum();
+    }
+
+    public long getFailedTryLocks() {
+        return failedTryLocks.sum();
+    }
+
+    public LatencyHistogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    public LatencyHistogram getHoldTimes() {
+        return holdTimes;
+    }
+
+    @Override
+    public String toString() {
+        long n = acquisitions.sum();
+        long contended = contentions.sum();
+        return name + ": acquisitions=" + n + ", contended=" + contended
+                + (n == 0 ? "" : String.format(" (%.1f%%)", contended * 100.0 / n))
+                + ", failedTryLocks=" + failedTryLocks.sum() + ", wait=" + waitTimes + ", hold=" + holdTimes;
+    }
+
+    /**
+     * await 之前结束本次持有时间的统计，返回后重新开始
+     */
+    private final class InstrumentedCondition implements Condition {
+        private final Condition delegate;
+
+        InstrumentedCondition(Condition delegate) {
+            this.delegate = delegate;
+        }
+
+        private void beforeAwait() {
+            holdTimes.record(System.nanoTime() - holdStart);
+            owner = null;
+            monitor.released(InstrumentedLock.this);
+        }
+
+        private void afterAwait() {
+            holdStart = System.nanoTime();
+            owner = Thread.currentThread();
+            monitor.acquired(InstrumentedLock.this);
+        }
+
+        @Override
+        public void await() throws InterruptedException {
+            beforeAwait();
+            try {
+                delegate.await();
+            } finally {
+                afterAwait();
+            }
+        }
+
+        @Override
+        public void awaitUninterruptibly() {
+            beforeAwait();
+            try {
+                delegate.awaitUninterruptibly();
+            } finally {
+                afterAwait();
+            }
+        }
+
+        @Override
+        public long awaitNanos(long nanosTimeout) throws InterruptedException {
+            beforeAwait();
+            try {
+                return delegate.awaitNanos(nanosTimeout);
+            } finally {
+                afterAwait();
+            }
+        }
+
+        @Override
+        public boolean await(long time, TimeUnit unit) throws InterruptedException {
+            beforeAwait();
+            try {
+                return delegate.await(time, unit);
+            } finally {
+                afterAwait();
+            }
+        }
+
+        @Override
+        public boolean awaitUntil(Date deadline) throws InterruptedException {
+            beforeAwait();
+            try {
+                return delegate.awaitUntil(deadline);
+            } finally {
+                afterAwait();
+            }
+        }
+
+        @Override
+        public void signal() {
+            delegate.signal();
+        }
+
+        @Override
+        public void signalAll() {
+            delegate.signalAll();
+        }
+    }
+}
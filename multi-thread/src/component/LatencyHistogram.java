@@ -0,0 +1,69 @@
+package component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按 2 的幂分桶的耗时直方图（纳秒），第 i 个桶记录 [2^(i-1), 2^i) 的值，记录时不加锁；
+ * 分位数取所在桶的上界，误差在 2 倍以内，足以区分微秒级与毫秒级的等待
+ */
+public final class LatencyHistogram {
+    private final AtomicLongArray buckets = new AtomicLongArray(64);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(nanos) & 63);
+        count.increment();
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return total.sum();
+    }
+
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    /**
+     * 分位数的近似值（纳秒），p 在 0 到 1 之间
+     */
+    public long percentile(double p) {
+        long n = count.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(p * n);
+        long seen = 0;
+        for (int i = 0; i < 64; i++) {
+            seen += buckets.get(i);
+            if (seen >= Math.max(rank, 1)) {
+                return i == 0 ? 0 : Math.min((1L << i) - 1, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    @Override
+    public String toString() {
+        long n = count.sum();
+        return "{count=" + n + ", avg=" + micros(n == 0 ? 0 : total.sum() / n) + ", p50=" + micros(percentile(0.5))
+                + ", p99=" + micros(percentile(0.99)) + ", max=" + micros(max.get()) + "}";
+    }
+
+    private static String micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos) + "us";
+    }
+}
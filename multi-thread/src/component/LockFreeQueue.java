@@ -0,0 +1,75 @@
+package component;
+
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 有界无锁队列的公共部分：容量向上取整为 2 的幂（至少为 2），下标通过 mask 计算；
+ * 在非阻塞的 offer / poll 之上提供与 MBlockingQueue 相同的阻塞接口 enqueue / dequeue，
+ * 满或空时按 WaitStrategy 等待。元素不能为 null。
+ */
+public abstract class LockFreeQueue<T> {
+    final Object[] buffer;
+    final int mask;
+    final WaitStrategy waitStrategy;
+    private final BooleanSupplier notFull = () -> size() < capacity();
+    private final BooleanSupplier notEmpty = () -> !isEmpty();
+
+    LockFreeQueue(int cap, WaitStrategy waitStrategy) {
+        if (cap < 1 || cap > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30: " + cap);
+        }
+        // 至少为 2：MPMC 中只有一个槽位时“本轮已写入”与“下一轮可写入”的序号相同，无法区分
+        int size = cap <= 2 ? 2 : Integer.highestOneBit(cap - 1) << 1;
+        this.buffer = new Object[size];
+        this.mask = size - 1;
+        this.waitStrategy = Objects.requireNonNull(waitStrategy);
+    }
+
+    /**
+     * 放入元素，队列已满时立即返回 false
+     */
+    public abstract boolean offer(T item);
+
+    /**
+     * 取出元素，队列为空时立即返回 null
+     */
+    public abstract T poll();
+
+    /**
+     * 当前的元素个数，并发修改时只是近似值
+     */
+    public abstract int size();
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public void enqueue(T item) throws InterruptedException {
+        Objects.requireNonNull(item);
+        while (!offer(item)) {
+            waitStrategy.await(notFull); // 如果队列已满，则等待直到队列不满
+        }
+    }
+
+    public T dequeue() throws InterruptedException {
+        T item;
+        while ((item = poll()) == null) {
+            waitStrategy.await(notEmpty); // 如果队列为空，则等待直到队列非空
+        }
+        return item;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{size=" + size() + "/" + capacity() + ", " + waitStrategy + "}";
+    }
+}
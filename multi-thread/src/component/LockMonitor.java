@@ -0,0 +1,178 @@
+package component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * InstrumentedLock 的注册表与加锁顺序图：
+ *   1. 按名字创建并登记锁，report 输出每个锁的竞争次数、等待与持有时间，按总等待时间从高到低排列；
+ *   2. 记录每个线程当前持有的锁，线程持有 A 时去获取 B，就在图中加入边 A -> B；
+ *   3. 新加入的边使图中出现环时（比如一个线程按 A -> B、另一个线程按 B -> A 的顺序加锁），
+ *      记录环上的锁以及每条边第一次出现时的线程与调用栈，即使这次没有真的死锁也能提前发现。
+ *
+ * 只有新边需要检查环并记录调用栈，之后相同顺序的加锁只有一次 Map 查询。
+ */
+public final class LockMonitor {
+    private static final LockMonitor GLOBAL = new LockMonitor();
+
+    public static LockMonitor global() {
+        return GLOBAL;
+    }
+
+    private final Map<String, InstrumentedLock> locks = new ConcurrentHashMap<>();
+    // from -> (to -> 第一次出现时的线程与调用栈)
+    private final Map<InstrumentedLock, Map<InstrumentedLock, String>> edges = new ConcurrentHashMap<>();
+    private final ThreadLocal<List<InstrumentedLock>> held = ThreadLocal.withInitial(ArrayList::new);
+    private final Queue<String> lockOrderCycles = new ConcurrentLinkedQueue<>();
+    private final Set<Set<InstrumentedLock>> reportedCycles = ConcurrentHashMap.newKeySet();
+
+    public InstrumentedLock newLock(String name) {
+        return newLock(name, false);
+    }
+
+    /**
+     * 创建锁，同名的锁已经存在时返回已有的锁
+     */
+    public InstrumentedLock newLock(String name, boolean fair) {
+        return locks.computeIfAbsent(name, n -> new InstrumentedLock(n, fair, this));
+    }
+
+    public InstrumentedLock getLock(String name) {
+        return locks.get(name);
+    }
+
+    public List<InstrumentedLock> getLocks() {
+        return new ArrayList<>(locks.values());
+    }
+
+    /**
+     * 阻塞获取 lock 之前调用，记录 当前线程持有的锁 -> lock
+     */
+    void beforeAcquire(InstrumentedLock lock) {
+        List<InstrumentedLock> current = held.get();
+        for (int i = 0; i < current.size(); i++) {
+            InstrumentedLock from = current.get(i);
+            Map<InstrumentedLock, String> targets = edges.computeIfAbsent(from, k -> new ConcurrentHashMap<>());
+            if (!targets.containsKey(lock) && targets.putIfAbsent(lock, describeCurrentThread()) == null) {
+                checkCycle(from, lock);
+            }
+        }
+    }
+
+    void acquired(InstrumentedLock lock) {
+        held.get().add(lock);
+    }
+
+    void released(InstrumentedLock lock) {
+        List<InstrumentedLock> current = held.get();
+        // 通常是最后获取的锁最先释放，从后往前找
+        for (int i = current.size() - 1; i >= 0; i--) {
+            if (current.get(i) == lock) {
+                current.remove(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 加入边 from -> to 后，如果从 to 出发能回到 from 就形成了环
+     */
+    private void checkCycle(InstrumentedLock from, InstrumentedLock to) {
+        List<InstrumentedLock> path = findPath(to, from);
+        if (path == null) {
+            return;
+        }
+        List<InstrumentedLock> cycle = new ArrayList<>();
+        cycle.add(from);
+        cycle.addAll(path); // to ... from
+        if (!reportedCycles.add(new HashSet<>(cycle))) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder("lock order cycle: ");
+        for (int i = 0; i < cycle.size(); i++) {
+            sb.append(i == 0 ? "" : " -> ").append(cycle.get(i).getName());
+        }
+        for (int i = 0; i + 1 < cycle.size(); i++) {
+            sb.append("\n  ").append(cycle.get(i).getName()).append(" -> ").append(cycle.get(i + 1).getName())
+                    .append(" first acquired by ").append(edges.get(cycle.get(i)).get(cycle.get(i + 1)));
+        }
+        lockOrderCycles.add(sb.toString());
+    }
+
+    /**
+     * 广度优先搜索 start 到 target 的路径（包括两端），不存在时返回 null
+     */
+    private List<InstrumentedLock> findPath(InstrumentedLock start, InstrumentedLock target) {
+        Map<InstrumentedLock, InstrumentedLock> parents = new HashMap<>();
+        Deque<InstrumentedLock> queue = new ArrayDeque<>();
+        parents.put(start, start);
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            InstrumentedLock node = queue.poll();
+            if (node == target) {
+                List<InstrumentedLock> path = new ArrayList<>();
+                for (InstrumentedLock n = target; n != start; n = parents.get(n)) {
+                    path.add(0, n);
+                }
+                path.add(0, start);
+                return path;
+            }
+            for (InstrumentedLock next : edges.getOrDefault(node, Map.of()).keySet()) {
+                if (parents.putIfAbsent(next, node) == null) {
+                    queue.add(next);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String describeCurrentThread() {
+        Thread thread = Thread.currentThread();
+        StringBuilder sb = new StringBuilder("\"").append(thread.getName()).append('"');
+        StackTraceElement[] stack = thread.getStackTrace();
+        for (StackTraceElement element : stack) {
+            String cls = element.getClassName();
+            // 跳过 getStackTrace 与监控本身的栈帧
+            if (cls.equals(Thread.class.getName()) || cls.equals(LockMonitor.class.getName())
+                    || cls.startsWith(InstrumentedLock.class.getName())) {
+                continue;
+            }
+            sb.append("\n      at ").append(element);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 取出新发现的加锁顺序环，每个环只报告一次
+     */
+    public List<String> drainLockOrderCycles() {
+        List<String> result = new ArrayList<>();
+        for (String cycle; (cycle = lockOrderCycles.poll()) != null; ) {
+            result.add(cycle);
+        }
+        return result;
+    }
+
+    /**
+     * 所有锁的统计信息，按总等待时间从高到低排列
+     */
+    public String report() {
+        List<InstrumentedLock> all = getLocks();
+        all.sort(Comparator.comparingLong((InstrumentedLock l) -> l.getWaitTimes().getTotalNanos()).reversed());
+        StringBuilder sb = new StringBuilder();
+        for (InstrumentedLock lock : all) {
+            sb.append(lock).append('\n');
+        }
+        return sb.toString();
+    }
+}
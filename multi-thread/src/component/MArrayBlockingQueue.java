@@ -0,0 +1,259 @@
+package component;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * MBlockingQueue 的数组实现，接口与阻塞行为相同（满时 enqueue 等待，空时 dequeue 等待）：
+ *   1. 元素保存在预先分配的环形数组中，enqueue 不再为每个元素创建链表节点；
+ *   2. 生产者只使用 putLock，消费者只使用 takeLock，两边互不竞争；
+ *      元素个数保存在 AtomicInteger 中，size() 不需要加锁；
+ *   3. enqueueAll / drainTo 一次加锁移动多个元素，减少加锁与唤醒的次数；
+ *   4. 带超时的 offer / poll 最多等待指定时间，超时返回 false / null。
+ *
+ * 两把锁之间通过 count 建立可见性：生产者先写入数组再增加 count，消费者先读取 count 再读取数组，
+ * 因此消费者一定能看到已经计入 count 的元素；putIndex 只由生产者修改，takeIndex 只由消费者修改。
+ */
+public class MArrayBlockingQueue<T> {
+    private final Object[] items;
+    private final AtomicInteger count = new AtomicInteger();
+
+    private int putIndex; // 只在持有 putLock 时访问
+    private final ReentrantLock putLock = new ReentrantLock();
+    private final Condition notFull = putLock.newCondition();
+
+    private int takeIndex; // 只在持有 takeLock 时访问
+    private final ReentrantLock takeLock = new ReentrantLock();
+    private final Condition notEmpty = takeLock.newCondition();
+
+    public MArrayBlockingQueue(int cap) {
+        if (cap < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + cap);
+        }
+        this.items = new Object[cap];
+    }
+
+    public void enqueue(T item) throws InterruptedException {
+        Objects.requireNonNull(item);
+        int c;
+        putLock.lockInterruptibly();
+        try {
+            while (count.get() == items.length) {
+                notFull.await(); // 如果队列已满，则等待直到队列不满
+            }
+            items[putIndex] = item;
+            putIndex = inc(putIndex);
+            c = count.getAndIncrement();
+            if (c + 1 < items.length) {
+                notFull.signal(); // 还有空间，唤醒下一个等待的生产者
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (c == 0) {
+            signalNotEmpty(); // 队列从空变为非空，唤醒可能在等待数据的线程
+        }
+    }
+
+    /**
+     * 队列已满时最多等待 timeout，仍然没有空间则返回 false
+     */
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(item);
+        long nanos = unit.toNanos(timeout);
+        int c;
+        putLock.lockInterruptibly();
+        try {
+            while (count.get() == items.length) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            items[putIndex] = item;
+            putIndex = inc(putIndex);
+            c = count.getAndIncrement();
+            if (c + 1 < items.length) {
+                notFull.signal();
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (c == 0) {
+            signalNotEmpty();
+        }
+        return true;
+    }
+
+    /**
+     * 按迭代顺序放入所有元素，空间不足时放入能放下的部分后继续等待，直到全部放入；
+     * 每次加锁放入尽可能多的元素，只在需要时唤醒消费者
+     */
+    public void enqueueAll(Collection<? extends T> c) throws InterruptedException {
+        Object[] src = c.toArray();
+        for (Object item : src) {
+            Objects.requireNonNull(item);
+        }
+        int done = 0;
+        while (done < src.length) {
+            int before;
+            int n;
+            putLock.lockInterruptibly();
+            try {
+                while (count.get() == items.length) {
+                    notFull.await();
+                }
+                n = Math.min(src.length - done, items.length - count.get());
+                for (int i = 0; i < n; i++) {
+                    items[putIndex] = src[done + i];
+                    putIndex = inc(putIndex);
+                }
+                before = count.getAndAdd(n);
+                if (before + n < items.length) {
+                    notFull.signal();
+                }
+            } finally {
+                putLock.unlock();
+            }
+            done += n;
+            if (before == 0) {
+                signalNotEmpty();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T dequeue() throws InterruptedException {
+        T item;
+        int c;
+        takeLock.lockInterruptibly();
+        try {
+            while (count.get() == 0) {
+                notEmpty.await(); // 如果队列为空，则等待直到队列非空
+            }
+            item = (T) items[takeIndex];
+            items[takeIndex] = null;
+            takeIndex = inc(takeIndex);
+            c = count.getAndDecrement();
+            if (c > 1) {
+                notEmpty.signal(); // 还有数据，唤醒下一个等待的消费者
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (c == items.length) {
+            signalNotFull(); // 队列从满变为不满，唤醒可能在等待空间的线程
+        }
+        return item;
+    }
+
+    /**
+     * 队列为空时最多等待 timeout，仍然为空则返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        T item;
+        int c;
+        takeLock.lockInterruptibly();
+        try {
+            while (count.get() == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            item = (T) items[takeIndex];
+            items[takeIndex] = null;
+            takeIndex = inc(takeIndex);
+            c = count.getAndDecrement();
+            if (c > 1) {
+                notEmpty.signal();
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (c == items.length) {
+            signalNotFull();
+        }
+        return item;
+    }
+
+    /**
+     * 等待直到队列非空，然后一次取出最多 max 个元素按顺序加入 c，返回取出的个数
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(Collection<? super T> c, int max) throws InterruptedException {
+        Objects.requireNonNull(c);
+        if (max <= 0) {
+            return 0;
+        }
+        int n;
+        int before;
+        takeLock.lockInterruptibly();
+        try {
+            while (count.get() == 0) {
+                notEmpty.await();
+            }
+            n = Math.min(max, count.get());
+            int i = 0;
+            try {
+                for (; i < n; i++) {
+                    c.add((T) items[takeIndex]);
+                    items[takeIndex] = null;
+                    takeIndex = inc(takeIndex);
+                }
+            } finally {
+                // c.add 抛出异常时，只移除已经加入 c 的元素
+                n = i;
+                before = count.getAndAdd(-n);
+                if (before - n > 0) {
+                    notEmpty.signal();
+                }
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (before == items.length && n > 0) {
+            signalNotFull();
+        }
+        return n;
+    }
+
+    /**
+     * 不加锁读取元素个数
+     */
+    public int size() {
+        return count.get();
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+
+    private int inc(int i) {
+        return ++i == items.length ? 0 : i;
+    }
+
+    private void signalNotEmpty() {
+        takeLock.lock();
+        try {
+            notEmpty.signal();
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    private void signalNotFull() {
+        putLock.lock();
+        try {
+            notFull.signal();
+        } finally {
+            putLock.unlock();
+        }
+    }
+}
@@ -1,52 +1,186 @@
 package component;
 
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
-public class MBlockingQueue<T> {
+/**
+ * 有界阻塞队列，实现了 BlockingQueue，可以直接作为 ThreadPoolExecutor 的任务队列：
+ *   1. put / take（即 enqueue / dequeue）在满或空时一直等待；
+ *   2. offer / poll 立即返回，带超时的 offer / poll 最多等待指定时间，满时可以据此拒绝或降级，而不是一直阻塞；
+ *   3. fair 为 true 时等待的线程按先后顺序获得锁，吞吐量较低但不会饥饿；
+ *   4. 只使用 ReentrantLock 与 Condition，不使用 synchronized，虚拟线程等待时不会占住载体线程；
+ *   5. 可以传入 LockMonitor 创建的 InstrumentedLock，观察队列锁的竞争与等待时间。
+ *
+ * 元素不能为 null；迭代器遍历的是创建时的快照。
+ */
+public class MBlockingQueue<T> extends AbstractQueue<T> implements BlockingQueue<T> {
     private final LinkedList<T> list;
     private final int capacity;
     private final Lock lock;
+    private final boolean fair;
     private final Condition notEmpty;
     private final Condition notFull;
 
     public MBlockingQueue(int cap) {
+        this(cap, false);
+    }
+
+    public MBlockingQueue(int cap, boolean fair) {
+        this(cap, new ReentrantLock(fair), fair);
+    }
+
+    /**
+     * 使用指定的锁，比如 LockMonitor.global().newLock("ingest-queue")
+     */
+    public MBlockingQueue(int cap, InstrumentedLock lock) {
+        this(cap, lock, lock.isFair());
+    }
+
+    private MBlockingQueue(int cap, Lock lock, boolean fair) {
+        if (cap < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + cap);
+        }
         this.capacity = cap;
         this.list = new LinkedList<>();
-        this.lock = new ReentrantLock();
+        this.lock = lock;
+        this.fair = fair;
         this.notEmpty = lock.newCondition();
         this.notFull = lock.newCondition();
     }
 
     public void enqueue(T item) throws InterruptedException {
-        lock.lock();
+        put(item);
+    }
+
+    public T dequeue() throws InterruptedException {
+        return take();
+    }
+
+    @Override
+    public void put(T item) throws InterruptedException {
+        Objects.requireNonNull(item);
+        lock.lockInterruptibly();
         try {
             while (list.size() == capacity) {
                 notFull.await(); // 如果队列已满，则等待直到队列不满
             }
-            list.offer(item);
-            notEmpty.signal(); // 唤醒可能在等待数据的线程
+            insert(item);
         } finally {
             lock.unlock();
         }
     }
 
-    public T dequeue() throws InterruptedException {
+    @Override
+    public boolean offer(T item) {
+        Objects.requireNonNull(item);
         lock.lock();
+        try {
+            if (list.size() == capacity) {
+                return false;
+            }
+            insert(item);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(item);
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (list.size() == capacity) {
+                if (nanos <= 0) {
+                    return false; // 超时仍然没有空间
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            insert(item);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        lock.lockInterruptibly();
         try {
             while (list.isEmpty()) {
                 notEmpty.await(); // 如果队列为空，则等待直到队列非空
             }
-            T item = list.poll();
-            notFull.signal(); // 唤醒可能在等待空间的线程
-            return item;
+            return extract();
         } finally {
             lock.unlock();
         }
     }
 
+    @Override
+    public T poll() {
+        lock.lock();
+        try {
+            return list.isEmpty() ? null : extract();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (list.isEmpty()) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return extract();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T peek() {
+        lock.lock();
+        try {
+            return list.peek();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 调用前需要持有锁，且队列不满
+     */
+    private void insert(T item) {
+        list.offer(item);
+        notEmpty.signal(); // 唤醒可能在等待数据的线程
+    }
+
+    /**
+     * 调用前需要持有锁，且队列非空
+     */
+    private T extract() {
+        T item = list.poll();
+        notFull.signal(); // 唤醒可能在等待空间的线程
+        return item;
+    }
+
+    @Override
     public int size() {
         lock.lock();
         try {
@@ -55,4 +189,170 @@ public class MBlockingQueue<T> {
             lock.unlock();
         }
     }
+
+    @Override
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return capacity - list.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        lock.lock();
+        try {
+            if (list.remove(o)) {
+                notFull.signal();
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null) {
+            return false;
+        }
+        lock.lock();
+        try {
+            return list.contains(o);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            list.clear();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 一次加锁取出最多 max 个元素，不等待
+     */
+    @Override
+    public int drainTo(Collection<? super T> c, int max) {
+        Objects.requireNonNull(c);
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        if (max <= 0) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            int n = 0;
+            try {
+                while (n < max && !list.isEmpty()) {
+                    c.add(list.peek());
+                    list.poll(); // 加入 c 成功后才移除
+                    n++;
+                }
+            } finally {
+                if (n > 0) {
+                    notFull.signalAll();
+                }
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Object[] toArray() {
+        lock.lock();
+        try {
+            return list.toArray();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public <E> E[] toArray(E[] a) {
+        lock.lock();
+        try {
+            return list.toArray(a);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 遍历调用时的快照，不会抛出 ConcurrentModificationException；remove 从队列中移除对应的元素
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<T> iterator() {
+        Object[] snapshot = toArray();
+        return new Iterator<T>() {
+            private int next;
+            private T last;
+
+            @Override
+            public boolean hasNext() {
+                return next < snapshot.length;
+            }
+
+            @Override
+            public T next() {
+                if (next >= snapshot.length) {
+                    throw new NoSuchElementException();
+                }
+                last = (T) snapshot[next++];
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                removeItem(last);
+                last = null;
+            }
+        };
+    }
+
+    /**
+     * 按引用移除，避免 equals 相同的其他元素被误删
+     */
+    private void removeItem(Object item) {
+        lock.lock();
+        try {
+            for (Iterator<T> it = list.iterator(); it.hasNext(); ) {
+                if (it.next() == item) {
+                    it.remove();
+                    notFull.signal();
+                    return;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isFair() {
+        return fair;
+    }
 }
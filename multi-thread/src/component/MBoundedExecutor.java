@@ -0,0 +1,73 @@
+package component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 以 MBlockingQueue 为任务队列的固定线程数线程池，用于对提交方施加背压：
+ *   1. 队列未满时任务直接入队；
+ *   2. 队列已满时提交线程最多等待 offerTimeout，期间有空间则入队；
+ *   3. 仍然没有空间（或线程池已关闭）时交给 rejectionPolicy 处理，可以使用 ThreadPoolExecutor 自带的
+ *      AbortPolicy（抛出 RejectedExecutionException）、CallerRunsPolicy、DiscardPolicy、DiscardOldestPolicy，
+ *      或者自定义的降级逻辑。
+ *
+ * 使用例子：
+ * MBoundedExecutor executor = new MBoundedExecutor(4, 1000, 50, TimeUnit.MILLISECONDS,
+ *         new ThreadPoolExecutor.CallerRunsPolicy());
+ * executor.execute(task);
+ *
+ * threadFactory 可以传入虚拟线程的工厂（Thread.ofVirtual().factory()），队列只使用 ReentrantLock，不会占住载体线程。
+ */
+public class MBoundedExecutor extends ThreadPoolExecutor {
+
+    public MBoundedExecutor(int threads, int queueCapacity, long offerTimeout, TimeUnit unit,
+                            RejectedExecutionHandler rejectionPolicy) {
+        this(threads, queueCapacity, false, offerTimeout, unit, Executors.defaultThreadFactory(), rejectionPolicy);
+    }
+
+    public MBoundedExecutor(int threads, int queueCapacity, boolean fair, long offerTimeout, TimeUnit unit,
+                            ThreadFactory threadFactory, RejectedExecutionHandler rejectionPolicy) {
+        super(threads, threads, 0L, TimeUnit.MILLISECONDS, new MBlockingQueue<>(queueCapacity, fair), threadFactory,
+                new TimedOfferPolicy(offerTimeout, unit, rejectionPolicy));
+        prestartAllCoreThreads(); // 任务可能由 TimedOfferPolicy 直接放入队列，需要先有线程在取任务
+    }
+
+    /**
+     * 队列已满时先等待 timeout 再交给 fallback，等待期间被中断则恢复中断标记并拒绝
+     */
+    static final class TimedOfferPolicy implements RejectedExecutionHandler {
+        private final long timeoutNanos;
+        private final RejectedExecutionHandler fallback;
+
+        TimedOfferPolicy(long timeout, TimeUnit unit, RejectedExecutionHandler fallback) {
+            if (timeout < 0) {
+                throw new IllegalArgumentException("timeout must not be negative: " + timeout);
+            }
+            this.timeoutNanos = unit.toNanos(timeout);
+            this.fallback = fallback;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (!executor.isShutdown() && timeoutNanos > 0) {
+                try {
+                    if (executor.getQueue().offer(task, timeoutNanos, TimeUnit.NANOSECONDS)) {
+                        // 入队后线程池被关闭，任务可能不会再被执行，能移除则按拒绝处理
+                        if (executor.isShutdown() && executor.remove(task)) {
+                            fallback.rejectedExecution(task, executor);
+                        }
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException("interrupted while waiting for queue space", e);
+                }
+            }
+            fallback.rejectedExecution(task, executor);
+        }
+    }
+}
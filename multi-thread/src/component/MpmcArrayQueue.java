@@ -0,0 +1,153 @@
+package component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+
+/**
+ * 多生产者多消费者的有界无锁队列（Dmitry Vyukov 的 bounded MPMC queue）：
+ *   1. 每个槽位有一个序号，初始为槽位下标；序号等于 pos 时槽位可写，等于 pos + 1 时槽位可读；
+ *   2. 生产者 / 消费者通过 CAS 推进 producerIndex / consumerIndex 抢占槽位，
+ *      读写元素后以 release 语义更新槽位序号，另一端以 acquire 语义读取序号后才访问元素；
+ *   3. producerIndex 与 consumerIndex 前后填充 64 字节以上，分别位于不同的缓存行，避免伪共享。
+ *
+ * 使用例子：
+ * MpmcArrayQueue<Task> queue = new MpmcArrayQueue<>(1024, WaitStrategy.yielding());
+ * queue.enqueue(task);     // 生产者线程
+ * Task t = queue.dequeue(); // 消费者线程
+ */
+public final class MpmcArrayQueue<T> extends MpmcConsumerIndex<T> {
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle PRODUCER_INDEX;
+    private static final VarHandle CONSUMER_INDEX;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            PRODUCER_INDEX = lookup.findVarHandle(MpmcProducerIndex.class, "producerIndex", long.class);
+            CONSUMER_INDEX = lookup.findVarHandle(MpmcConsumerIndex.class, "consumerIndex", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    byte b000, b001, b002, b003, b004, b005, b006, b007, b010, b011, b012, b013, b014, b015, b016, b017;
+    byte b020, b021, b022, b023, b024, b025, b026, b027, b030, b031, b032, b033, b034, b035, b036, b037;
+    byte b040, b041, b042, b043, b044, b045, b046, b047, b050, b051, b052, b053, b054, b055, b056, b057;
+    byte b060, b061, b062, b063, b064, b065, b066, b067, b070, b071, b072, b073, b074, b075, b076, b077;
+
+    private final long[] sequences;
+
+    public MpmcArrayQueue(int cap) {
+        this(cap, WaitStrategy.parking());
+    }
+
+    public MpmcArrayQueue(int cap, WaitStrategy waitStrategy) {
+        super(cap, waitStrategy);
+        this.sequences = new long[buffer.length];
+        for (int i = 0; i < sequences.length; i++) {
+            sequences[i] = i;
+        }
+    }
+
+    @Override
+    public boolean offer(T item) {
+        Objects.requireNonNull(item);
+        long pos = (long) PRODUCER_INDEX.getOpaque(this);
+        int index;
+        for (; ; ) {
+            index = (int) pos & mask;
+            long diff = (long) SEQUENCE.getAcquire(sequences, index) - pos;
+            if (diff == 0) {
+                if (PRODUCER_INDEX.weakCompareAndSetPlain(this, pos, pos + 1)) {
+                    break;
+                }
+                pos = (long) PRODUCER_INDEX.getOpaque(this);
+            } else if (diff < 0) {
+                return false; // 槽位还没有被上一轮的消费者取走，队列已满
+            } else {
+                pos = (long) PRODUCER_INDEX.getOpaque(this); // 被其他生产者抢先，重新读取
+            }
+        }
+        buffer[index] = item;
+        SEQUENCE.setRelease(sequences, index, pos + 1);
+        waitStrategy.signal();
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long pos = (long) CONSUMER_INDEX.getOpaque(this);
+        int index;
+        for (; ; ) {
+            index = (int) pos & mask;
+            long diff = (long) SEQUENCE.getAcquire(sequences, index) - (pos + 1);
+            if (diff == 0) {
+                if (CONSUMER_INDEX.weakCompareAndSetPlain(this, pos, pos + 1)) {
+                    break;
+                }
+                pos = (long) CONSUMER_INDEX.getOpaque(this);
+            } else if (diff < 0) {
+                return null; // 槽位还没有被生产者写入，队列为空
+            } else {
+                pos = (long) CONSUMER_INDEX.getOpaque(this);
+            }
+        }
+        T item = (T) buffer[index];
+        buffer[index] = null;
+        SEQUENCE.setRelease(sequences, index, pos + buffer.length); // 下一轮的生产者可以写入
+        waitStrategy.signal();
+        return item;
+    }
+
+    @Override
+    public int size() {
+        // 先读 consumerIndex，保证两者之差不会是负数
+        long consumer = (long) CONSUMER_INDEX.getVolatile(this);
+        long producer = (long) PRODUCER_INDEX.getVolatile(this);
+        return (int) Math.max(0, Math.min(producer - consumer, buffer.length));
+    }
+}
+
+/**
+ * 以下几个类只用于控制字段布局：子类字段排在父类字段之后，
+ * 通过 64 字节的填充把 producerIndex 与 consumerIndex 放到不同的缓存行
+ */
+abstract class MpmcPad0<T> extends LockFreeQueue<T> {
+    byte b000, b001, b002, b003, b004, b005, b006, b007, b010, b011, b012, b013, b014, b015, b016, b017;
+    byte b020, b021, b022, b023, b024, b025, b026, b027, b030, b031, b032, b033, b034, b035, b036, b037;
+    byte b040, b041, b042, b043, b044, b045, b046, b047, b050, b051, b052, b053, b054, b055, b056, b057;
+    byte b060, b061, b062, b063, b064, b065, b066, b067, b070, b071, b072, b073, b074, b075, b076, b077;
+
+    MpmcPad0(int cap, WaitStrategy waitStrategy) {
+        super(cap, waitStrategy);
+    }
+}
+
+abstract class MpmcProducerIndex<T> extends MpmcPad0<T> {
+    volatile long producerIndex;
+
+    MpmcProducerIndex(int cap, WaitStrategy waitStrategy) {
+        super(cap, waitStrategy);
+    }
+}
+
+abstract class MpmcPad1<T> extends MpmcProducerIndex<T> {
+    byte b000, b001, b002, b003, b004, b005, b006, b007, b010, b011, b012, b013, b014, b015, b016, b017;
+    byte b020, b021, b022, b023, b024, b025, b026, b027, b030, b031, b032, b033, b034, b035, b036, b037;
+    byte b040, b041, b042, b043, b044, b045, b046, b047, b050, b051, b052, b053, b054, b055, b056, b057;
+    byte b060, b061, b062, b063, b064, b065, b066, b067, b070, b071, b072, b073, b074, b075, b076, b077;
+
+    MpmcPad1(int cap, WaitStrategy waitStrategy) {
+        super(cap, waitStrategy);
+    }
+}
+
+abstract class MpmcConsumerIndex<T> extends MpmcPad1<T> {
+    volatile long consumerIndex;
+
+    MpmcConsumerIndex(int cap, WaitStrategy waitStrategy) {
+        super(cap, waitStrategy);
+    }
+}
@@ -0,0 +1,132 @@
+package component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+
+/**
+ * 单生产者单消费者的有界无锁队列，只能有一个线程调用 offer / enqueue，一个线程调用 poll / dequeue：
+ *   1. producerIndex 只由生产者修改，consumerIndex 只由消费者修改，都是单调递增的序号，不需要 CAS；
+ *   2. 生产者写入元素后以 release 语义推进 producerIndex，消费者以 acquire 语义读取后才读取元素，反之亦然；
+ *   3. 生产者缓存上一次读到的 consumerIndex，只有缓存的值显示队列已满时才重新读取，消费者同理，
+ *      大多数操作不需要读取另一端所在的缓存行；
+ *   4. 两端的字段前后各填充 64 字节，分别位于不同的缓存行，避免伪共享。
+ *
+ * 使用例子：
+ * SpscArrayQueue<Event> queue = new SpscArrayQueue<>(4096, WaitStrategy.busySpin());
+ * queue.enqueue(event);      // 唯一的生产者线程
+ * Event e = queue.dequeue(); // 唯一的消费者线程
+ */
+public final class SpscArrayQueue<T> extends SpscConsumerFields<T> {
+    private static final VarHandle PRODUCER_INDEX;
+    private static final VarHandle CONSUMER_INDEX;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            PRODUCER_INDEX = lookup.findVarHandle(SpscProducerFields.class, "producerIndex", long.class);
+            CONSUMER_INDEX = lookup.findVarHandle(SpscConsumerFields.class, "consumerIndex", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    byte b000, b001, b002, b003, b004, b005, b006, b007, b010, b011, b012, b013, b014, b015, b016, b017;
+    byte b020, b021, b022, b023, b024, b025, b026, b027, b030, b031, b032, b033, b034, b035, b036, b037;
+    byte b040, b041, b042, b043, b044, b045, b046, b047, b050, b051, b052, b053, b054, b055, b056, b057;
+    byte b060, b061, b062, b063, b064, b065, b066, b067, b070, b071, b072, b073, b074, b075, b076, b077;
+
+    public SpscArrayQueue(int cap) {
+        this(cap, WaitStrategy.parking());
+    }
+
+    public SpscArrayQueue(int cap, WaitStrategy waitStrategy) {
+        super(cap, waitStrategy);
+    }
+
+    @Override
+    public boolean offer(T item) {
+        Objects.requireNonNull(item);
+        long pos = producerIndex; // 只有生产者修改，直接读取
+        if (pos - consumerLimit >= buffer.length) {
+            consumerLimit = (long) CONSUMER_INDEX.getAcquire(this);
+            if (pos - consumerLimit >= buffer.length) {
+                return false;
+            }
+        }
+        buffer[(int) pos & mask] = item;
+        PRODUCER_INDEX.setRelease(this, pos + 1);
+        waitStrategy.signal();
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long pos = consumerIndex; // 只有消费者修改，直接读取
+        if (pos >= producerLimit) {
+            producerLimit = (long) PRODUCER_INDEX.getAcquire(this);
+            if (pos >= producerLimit) {
+                return null;
+            }
+        }
+        int index = (int) pos & mask;
+        T item = (T) buffer[index];
+        buffer[index] = null;
+        CONSUMER_INDEX.setRelease(this, pos + 1);
+        waitStrategy.signal();
+        return item;
+    }
+
+    @Override
+    public int size() {
+        long consumer = (long) CONSUMER_INDEX.getAcquire(this);
+        long producer = (long) PRODUCER_INDEX.getAcquire(this);
+        return (int) Math.max(0, Math.min(producer - consumer, buffer.length));
+    }
+}
+
+/**
+ * 以下几个类只用于控制字段布局，生产者与消费者各自使用的字段位于不同的缓存行
+ */
+abstract class SpscPad0<T> extends LockFreeQueue<T> {
+    byte b000, b001, b002, b003, b004, b005, b006, b007, b010, b011, b012, b013, b014, b015, b016, b017;
+    byte b020, b021, b022, b023, b024, b025, b026, b027, b030, b031, b032, b033, b034, b035, b036, b037;
+    byte b040, b041, b042, b043, b044, b045, b046, b047, b050, b051, b052, b053, b054, b055, b056, b057;
+    byte b060, b061, b062, b063, b064, b065, b066, b067, b070, b071, b072, b073, b074, b075, b076, b077;
+
+    SpscPad0(int cap, WaitStrategy waitStrategy) {
+        super(cap, waitStrategy);
+    }
+}
+
+abstract class SpscProducerFields<T> extends SpscPad0<T> {
+    long producerIndex;
+    // 生产者缓存的 consumerIndex
+    long consumerLimit;
+
+    SpscProducerFields(int cap, WaitStrategy waitStrategy) {
+        super(cap, waitStrategy);
+    }
+}
+
+abstract class SpscPad1<T> extends SpscProducerFields<T> {
+    byte b000, b001, b002, b003, b004, b005, b006, b007, b010, b011, b012, b013, b014, b015, b016, b017;
+    byte b020, b021, b022, b023, b024, b025, b026, b027, b030, b031, b032, b033, b034, b035, b036, b037;
+    byte b040, b041, b042, b043, b044, b045, b046, b047, b050, b051, b052, b053, b054, b055, b056, b057;
+    byte b060, b061, b062, b063, b064, b065, b066, b067, b070, b071, b072, b073, b074, b075, b076, b077;
+
+    SpscPad1(int cap, WaitStrategy waitStrategy) {
+        super(cap, waitStrategy);
+    }
+}
+
+abstract class SpscConsumerFields<T> extends SpscPad1<T> {
+    long consumerIndex;
+    // 消费者缓存的 producerIndex
+    long producerLimit;
+
+    SpscConsumerFields(int cap, WaitStrategy waitStrategy) {
+        super(cap, waitStrategy);
+    }
+}
@@ -0,0 +1,195 @@
+package component;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 无锁队列在满或空时的等待方式，在 CPU 占用与延迟之间取舍：
+ *   busySpin  一直自旋，延迟最低，占满一个核；
+ *   yielding  自旋一段时间后 Thread.yield，让出 CPU 给同一个核上的其他线程；
+ *   parking   自旋、yield 之后每次 park 固定的纳秒数，CPU 占用低，延迟取决于 park 的时长；
+ *   blocking  自旋一段时间后通过 Condition 等待，由另一端唤醒，与 MBlockingQueue 的行为一致。
+ *
+ * blocking 持有锁与 Condition，每个队列应使用独立的实例；其他策略没有状态，可以共享。
+ * blocking 的 signal 在每次 offer / poll 后都有一次 fullFence，即使没有线程在等待，
+ * 因此队列的无参构造器默认使用 parking()，只有需要等待方真正阻塞时才显式指定 blocking。
+ */
+public interface WaitStrategy {
+
+    /**
+     * 等待直到 ready 返回 true；返回后调用方需要重新尝试，条件可能已经被其他线程抢先消耗
+     */
+    void await(BooleanSupplier ready) throws InterruptedException;
+
+    /**
+     * 队列状态改变（放入或取出元素）后调用，只有 blocking 需要唤醒等待的线程
+     */
+    default void signal() {
+    }
+
+    static WaitStrategy busySpin() {
+        return BusySpin.INSTANCE;
+    }
+
+    static WaitStrategy yielding() {
+        return Yielding.INSTANCE;
+    }
+
+    /**
+     * 每次 park 50 微秒的 parking，SpscArrayQueue / MpmcArrayQueue 的默认策略
+     */
+    static WaitStrategy parking() {
+        return Parking.DEFAULT;
+    }
+
+    static WaitStrategy parking(long parkNanos) {
+        return new Parking(parkNanos);
+    }
+
+    static WaitStrategy blocking() {
+        return new Blocking();
+    }
+
+    /**
+     * 每自旋 1024 次检查一次中断，避免等待中的线程无法退出
+     */
+    private static void checkInterrupted(int counter) throws InterruptedException {
+        if ((counter & 1023) == 0 && Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    final class BusySpin implements WaitStrategy {
+        static final BusySpin INSTANCE = new BusySpin();
+
+        @Override
+        public void await(BooleanSupplier ready) throws InterruptedException {
+            for (int counter = 1; !ready.getAsBoolean(); counter++) {
+                checkInterrupted(counter);
+                Thread.onSpinWait();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "busySpin";
+        }
+    }
+
+    final class Yielding implements WaitStrategy {
+        static final Yielding INSTANCE = new Yielding();
+        private static final int SPIN_TRIES = 100;
+
+        @Override
+        public void await(BooleanSupplier ready) throws InterruptedException {
+            for (int counter = 1; !ready.getAsBoolean(); counter++) {
+                checkInterrupted(counter);
+                if (counter < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "yielding";
+        }
+    }
+
+    final class Parking implements WaitStrategy {
+        static final Parking DEFAULT = new Parking(TimeUnit.MICROSECONDS.toNanos(50));
+        private static final int SPIN_TRIES = 100;
+        private static final int YIELD_TRIES = 200;
+        private final long parkNanos;
+
+        Parking(long parkNanos) {
+            if (parkNanos <= 0) {
+                throw new IllegalArgumentException("parkNanos must be positive: " + parkNanos);
+            }
+            this.parkNanos = parkNanos;
+        }
+
+        @Override
+        public void await(BooleanSupplier ready) throws InterruptedException {
+            for (int counter = 1; !ready.getAsBoolean(); counter++) {
+                if (counter < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else if (counter < YIELD_TRIES) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(this, parkNanos);
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "parking(" + TimeUnit.NANOSECONDS.toMicros(parkNanos) + "us)";
+        }
+    }
+
+    /**
+     * 等待的线程数记录在 waiters 中，没有线程等待时 signal 不加锁；
+     * 等待方写 waiters 后读队列状态，通知方写队列状态后读 waiters，两边都用 fullFence 保证不会错过唤醒
+     */
+    final class Blocking implements WaitStrategy {
+        private static final int SPIN_TRIES = 100;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private volatile int waiters;
+
+        Blocking() {
+        }
+
+        @Override
+        public void await(BooleanSupplier ready) throws InterruptedException {
+            for (int counter = 0; counter < SPIN_TRIES; counter++) {
+                if (ready.getAsBoolean()) {
+                    return;
+                }
+                Thread.onSpinWait();
+            }
+            lock.lockInterruptibly();
+            try {
+                waiters++; // 只在持有锁时修改
+                try {
+                    VarHandle.fullFence();
+                    while (!ready.getAsBoolean()) {
+                        changed.await();
+                    }
+                } finally {
+                    waiters--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void signal() {
+            VarHandle.fullFence();
+            if (waiters > 0) {
+                lock.lock();
+                try {
+                    changed.signalAll(); // 生产者与消费者共用一个 Condition，需要全部唤醒后各自检查
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "blocking";
+        }
+    }
+}
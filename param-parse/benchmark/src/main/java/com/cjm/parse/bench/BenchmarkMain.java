@@ -0,0 +1,22 @@
+package com.cjm.parse.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * benchmarks.jar 的入口，接受 JMH 的全部命令行参数，并始终开启 GC profiler 输出分配速率
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(cli);
+        if (cli.getIncludes().isEmpty()) {
+            options.include(ParseBenchmark.class.getSimpleName());
+        }
+        new Runner(options.addProfiler(GCProfiler.class).build()).run();
+    }
+}
@@ -0,0 +1,46 @@
+package com.cjm.parse.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+
+/**
+ * ParamParseUtil 位于默认包，具名包中的基准测试无法直接 import，
+ * 这里在类加载时查找一次对应的静态方法，之后通过 invokeExact 调用，调用开销可以忽略。
+ */
+final class ParamParseBridge {
+    private static final MethodHandle PARSE;
+    private static final MethodHandle PARSE_ENCODED;
+    private static final MethodHandle SPLIT_STRING;
+
+    static {
+        try {
+            Class<?> util = Class.forName("ParamParseUtil");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            PARSE = lookup.findStatic(util, "parse",
+                    MethodType.methodType(Object.class, Class.class, String.class));
+            PARSE_ENCODED = lookup.findStatic(util, "parseEncoded",
+                    MethodType.methodType(Object.class, Class.class, CharSequence.class));
+            SPLIT_STRING = lookup.findStatic(util, "splitString",
+                    MethodType.methodType(List.class, String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private ParamParseBridge() {
+    }
+
+    static Object parse(Class<?> clz, String queryString) throws Throwable {
+        return (Object) PARSE.invokeExact(clz, queryString);
+    }
+
+    static Object parseEncoded(Class<?> clz, CharSequence queryString) throws Throwable {
+        return (Object) PARSE_ENCODED.invokeExact(clz, queryString);
+    }
+
+    static List<?> splitString(String content) throws Throwable {
+        return (List<?>) SPLIT_STRING.invokeExact(content);
+    }
+}
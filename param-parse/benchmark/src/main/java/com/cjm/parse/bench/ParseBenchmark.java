@@ -0,0 +1,67 @@
+package com.cjm.parse.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ParamParseUtil 的基准测试，同时统计吞吐量与平均耗时：
+ *   parse        基于路径树的解析（当前实现）；
+ *   parseEncoded 逐个键值对绑定的流式解析，作为对照；
+ *   splitString  单独测量分割阶段。
+ *
+ * width 为 DEEP / WIDE / NOISY 输入中键值对的数量，对 FLAT 无影响。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParseBenchmark {
+
+    @Param({"FLAT", "DEEP", "WIDE", "NOISY"})
+    private Payloads.Shape shape;
+
+    @Param({"1000", "5000"})
+    private int width;
+
+    private Class<?> type;
+    private String queryString;
+
+    @Setup
+    public void setUp() throws Throwable {
+        type = shape.type;
+        queryString = shape.build(width);
+        // 提前构建绑定计划，同时确认输入可以被正常解析
+        if (ParamParseBridge.parse(type, queryString) == null) {
+            throw new IllegalStateException("empty result for " + shape);
+        }
+    }
+
+    @Benchmark
+    public Object parse() throws Throwable {
+        return ParamParseBridge.parse(type, queryString);
+    }
+
+    @Benchmark
+    public Object parseEncoded() throws Throwable {
+        return ParamParseBridge.parseEncoded(type, queryString);
+    }
+
+    @Benchmark
+    public List<?> splitString() throws Throwable {
+        return ParamParseBridge.splitString(queryString);
+    }
+}
@@ -0,0 +1,126 @@
+package com.cjm.parse.bench;
+
+import java.util.List;
+
+/**
+ * 基准测试使用的输入与目标类型：
+ *   FLAT  只有一层的字段，覆盖常用的值类型；
+ *   DEEP  形如 A.1.B.2.C.3.D 的多层 List 嵌套；
+ *   WIDE  成千上万个 Command.N 组成的宽 List；
+ *   NOISY 夹杂大量小写、格式错误的 key（在分割阶段就被丢弃）以及目标类中不存在的 key。
+ */
+public final class Payloads {
+
+    private Payloads() {
+    }
+
+    public enum Shape {
+        FLAT(FlatDto.class) {
+            @Override
+            String build(int width) {
+                return "ApiVersion=betav2&Name=nginx-deployment&Namespace=default&Cpu=2&Memory=4.0"
+                        + "&Replicas=3&Generation=1344556&Enabled=true&Priority=7&Ratio=0.75";
+            }
+        },
+        DEEP(DeepDto.class) {
+            @Override
+            String build(int width) {
+                StringBuilder sb = new StringBuilder(width * 32);
+                for (int n = 0; n < width; n++) {
+                    int a = n / 100 + 1;
+                    int b = n / 10 % 10 + 1;
+                    int c = n % 10 + 1;
+                    append(sb, "A." + a + ".B." + b + ".C." + c + ".D", "value-" + n);
+                    append(sb, "A." + a + ".B." + b + ".C." + c + ".E", String.valueOf(n));
+                }
+                return sb.toString();
+            }
+        },
+        WIDE(WideDto.class) {
+            @Override
+            String build(int width) {
+                StringBuilder sb = new StringBuilder(width * 24);
+                append(sb, "Name", "worker");
+                for (int n = 1; n <= width; n++) {
+                    append(sb, "Command." + n, "--option-" + n);
+                }
+                return sb.toString();
+            }
+        },
+        NOISY(FlatDto.class) {
+            @Override
+            String build(int width) {
+                StringBuilder sb = new StringBuilder(FLAT.build(width));
+                for (int n = 0; n < width; n++) {
+                    switch (n % 5) {
+                        case 0:
+                            append(sb, "trace" + n, "ignored");
+                            break;
+                        case 1:
+                            append(sb, "x-request-id." + n, "ignored");
+                            break;
+                        case 2:
+                            append(sb, "Cpu..Limit" + n, "ignored");
+                            break;
+                        case 3:
+                            append(sb, "Annotation" + n, "unknown");
+                            break;
+                        default:
+                            sb.append("&Label").append(n).append("=a=b");
+                    }
+                }
+                return sb.toString();
+            }
+        };
+
+        final Class<?> type;
+
+        Shape(Class<?> type) {
+            this.type = type;
+        }
+
+        abstract String build(int width);
+
+        private static void append(StringBuilder sb, String key, String value) {
+            if (sb.length() > 0) {
+                sb.append('&');
+            }
+            sb.append(key).append('=').append(value);
+        }
+    }
+
+    public static class FlatDto {
+        private String apiVersion;
+        private String name;
+        private String namespace;
+        private int cpu;
+        private double memory;
+        private Integer replicas;
+        private long generation;
+        private boolean enabled;
+        private short priority;
+        private java.math.BigDecimal ratio;
+    }
+
+    public static class DeepDto {
+        private List<Level1> a;
+    }
+
+    public static class Level1 {
+        private List<Level2> b;
+    }
+
+    public static class Level2 {
+        private List<Level3> c;
+    }
+
+    public static class Level3 {
+        private String d;
+        private int e;
+    }
+
+    public static class WideDto {
+        private String name;
+        private List<String> command;
+    }
+}
@@ -0,0 +1,868 @@
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * QueryParsable 的注解处理器，为每个被注解的类生成同包下的 ${类名}ParamParser：
+ *   1. public static T parse(String) 扫描查询字符串，逐个键值对调用 bind，重复出现的 key 只绑定第一次；
+ *   2. public static void bind(T, String, keyStart, keyEnd, valueStart, valueEnd, grown) 对 key 的每一段使用 switch，
+ *      直接调用构造器、字段赋值或 setter，不使用任何反射；
+ *      数组与 PathBinder 一样按 1.5 倍扩容，grown 记录扩容过的数组实际使用的长度，parse 结束时由 trim 截断；
+ *   3. 嵌套类型以及 List 的元素类型同样需要被 QueryParsable 注解，bind 直接调用它们生成的解析器；
+ *   4. 枚举通过生成的静态开放寻址表按字符区间查找常量（与 EnumLookup 相同），不调用 valueOf，常量不存在时不抛出异常；
+ *   5. 被 LowCardinality 注解的 String / List<String> 字段各自带有一个静态的有界缓存（与 StringInterner 相同）；
+ *   6. final 字段与 ClassBindingPlan 一样可以被写入：类初始化时对字段 setAccessible 后取得 MethodHandle，无法访问时忽略该字段；
+ *   7. public static boolean hasField(String, start, end) 判断参数名是否对应可以绑定的字段，
+ *      嵌套对象与 List 元素只有在下一段参数名有对应的字段时才实例化。
+ *
+ * 映射规则与 ParamParseUtil 的反射实现一致：参数名为首字母大写的字段名，被 SkipMappingValueAnnotation 注解的字段跳过，
+ * 下标从 1 开始且不超过 FieldBinding.MAX_INDEX（超过时丢弃），包装类型遇到空值或 "null" 不赋值，基本类型赋默认值，
+ * 数值格式错误或枚举常量不存在时保持原值。与 FieldAccessor.isWellFormed 一样先检查数值的格式，
+ * 生成的检查同时覆盖取值范围，解析过程不依赖捕获 NumberFormatException。
+ *
+ * 生成的代码只依赖 JDK，DTO 在任意包下都可以使用。
+ */
+@SupportedAnnotationTypes("QueryParsable")
+public class QueryParsableProcessor extends AbstractProcessor {
+    private static final String ANNOTATION = "QueryParsable";
+    private static final String SKIP_ANNOTATION = "SkipMappingValueAnnotation";
+    private static final String LOW_CARDINALITY_ANNOTATION = "LowCardinality";
+    private static final String SUFFIX = "ParamParser";
+
+    // 当前生成的类中的静态查找表：枚举类型 -> 常量名，以及所有表的声明
+    private final Map<String, String> enumTables = new LinkedHashMap<>();
+    private final StringBuilder tables = new StringBuilder();
+    // 当前生成的类中 trim 方法的内容：截断数组字段，并递归到嵌套对象与 List 元素
+    private final StringBuilder trims = new StringBuilder();
+    // 当前生成的类中可以绑定的参数名，即 hasField 的 case 标签
+    private final StringBuilder knownFields = new StringBuilder();
+    // 当前生成的类是否包含通过 MethodHandle 写入的 final 字段
+    private boolean hasFinalFields;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+                    error(element, "@QueryParsable can only be applied to concrete classes");
+                    continue;
+                }
+                try {
+                    generate((TypeElement) element);
+                } catch (IOException e) {
+                    error(element, "can not generate parser: " + e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        String packageName = packageOf(type);
+        String parserName = parserSimpleName(type);
+        String typeName = type.getQualifiedName().toString();
+
+        enumTables.clear();
+        tables.setLength(0);
+        trims.setLength(0);
+        knownFields.setLength(0);
+        hasFinalFields = false;
+        StringBuilder cases = new StringBuilder();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || hasAnnotation(field, SKIP_ANNOTATION)) {
+                continue;
+            }
+            String fieldCase = fieldCase(type, field);
+            if (fieldCase != null) {
+                cases.append(fieldCase);
+            }
+        }
+
+        StringBuilder src = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            src.append("package ").append(packageName).append(";\n\n");
+        }
+        src.append("/**\n")
+                .append(" * ").append(typeName).append(" 的查询字符串解析器，由 QueryParsableProcessor 生成，请勿修改\n")
+                .append(" */\n")
+                .append("public final class ").append(parserName).append(" {\n\n")
+                .append(tables).append(tables.length() > 0 ? "\n" : "")
+                .append("    private ").append(parserName).append("() {\n    }\n\n")
+                .append("    public static ").append(typeName).append(" parse(String src) {\n")
+                .append("        ").append(typeName).append(" target = new ").append(typeName).append("();\n")
+                .append("        int len = src.length();\n")
+                .append("        int start = 0;\n")
+                .append("        java.util.Set<String> bound = new java.util.HashSet<>();\n")
+                .append("        java.util.Map<Object, int[]> grown = new java.util.IdentityHashMap<>(4);\n")
+                .append("        while (start < len) {\n")
+                .append("            int end = src.indexOf('&', start);\n")
+                .append("            if (end < 0) {\n")
+                .append("                end = len;\n")
+                .append("            }\n")
+                .append("            int eq = indexOf(src, '=', start, end);\n")
+                .append("            if (eq > start && eq < end - 1 && indexOf(src, '=', eq + 1, end) < 0\n")
+                .append("                    && Character.isUpperCase(src.charAt(start)) && bound.add(src.substring(start, eq))) {\n")
+                .append("                bind(target, src, start, eq, eq + 1, end, grown);\n")
+                .append("            }\n")
+                .append("            start = end + 1;\n")
+                .append("        }\n")
+                .append("        if (!grown.isEmpty()) {\n")
+                .append("            trim(target, grown);\n")
+                .append("        }\n")
+                .append("        return target;\n")
+                .append("    }\n\n")
+                .append("    public static void bind(").append(typeName)
+                .append(" target, String src, int keyStart, int keyEnd, int valueStart, int valueEnd,\n")
+                .append("                            java.util.Map<Object, int[]> grown) {\n")
+                .append("        int dot = indexOf(src, '.', keyStart, keyEnd);\n")
+                .append("        int next = dot < 0 ? -1 : indexOf(src, '.', dot + 1, keyEnd);\n")
+                .append("        switch (src.substring(keyStart, dot < 0 ? keyEnd : dot)) {\n")
+                .append(cases)
+                .append("            default:\n")
+                .append("                return;\n")
+                .append("        }\n")
+                .append("    }\n\n")
+                .append("    public static boolean hasField(String src, int start, int end) {\n")
+                .append("        switch (src.substring(start, end)) {\n")
+                .append(knownFields)
+                .append(knownFields.length() > 0 ? "                return true;\n" : "")
+                .append("            default:\n")
+                .append("                return false;\n")
+                .append("        }\n")
+                .append("    }\n\n")
+                .append("    public static void trim(").append(typeName)
+                .append(" target, java.util.Map<Object, int[]> grown) {\n")
+                .append(trims)
+                .append("    }\n\n")
+                .append(HELPERS)
+                .append(hasFinalFields ? FINAL_FIELD_HELPERS : "")
+                .append("}\n");
+
+        String qualifiedParser = packageName.isEmpty() ? parserName : packageName + "." + parserName;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedParser, type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(src.toString());
+        }
+    }
+
+    /**
+     * 生成单个字段的 case 分支，不支持的字段给出警告后跳过，返回 null
+     */
+    private String fieldCase(TypeElement owner, VariableElement field) {
+        String name = field.getSimpleName().toString();
+        String paramName = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        if (!name.equals(Character.toLowerCase(paramName.charAt(0)) + paramName.substring(1))) {
+            return null;
+        }
+        TypeMirror type = field.asType();
+        Access access = access(owner, field);
+        if (access == null) {
+            error(field, "field " + name + " is private and has no setter/getter, "
+                    + "make it package-private or add set" + paramName + "/get" + paramName);
+            return null;
+        }
+
+        StringBuilder out = new StringBuilder();
+        out.append("            case \"").append(paramName).append("\": {\n");
+        if (access.handle != null) {
+            // final 字段无法访问时忽略
+            out.append("                if (").append(access.handle).append(" == null) {\n")
+                    .append("                    return;\n")
+                    .append("                }\n");
+        }
+
+        String value = valueExpr(type, field);
+        if (value != null && isEnum(type)) {
+            // P，常量不存在时返回 null，保持原值
+            out.append("                if (dot >= 0 || isNull(src, valueStart, valueEnd)) {\n")
+                    .append("                    return;\n")
+                    .append("                }\n")
+                    .append("                ").append(type).append(" value = ").append(value).append(";\n")
+                    .append("                if (value != null) {\n")
+                    .append("                    ").append(access.set("value")).append(";\n")
+                    .append("                }\n");
+        } else if (value != null) {
+            // P
+            String check = wellFormedExpr(type);
+            out.append("                if (dot >= 0) {\n")
+                    .append("                    return;\n")
+                    .append("                }\n");
+            if (type.getKind().isPrimitive()) {
+                out.append("                if (isNull(src, valueStart, valueEnd)) {\n")
+                        .append("                    ").append(access.set(defaultValue(type.getKind()))).append(";\n")
+                        .append("                } else").append(check == null ? "" : " if (" + check + ")").append(" {\n")
+                        .append("                    ").append(access.set(value)).append(";\n")
+                        .append("                }\n");
+            } else {
+                out.append("                if (!isNull(src, valueStart, valueEnd)")
+                        .append(check == null ? "" : " && " + check).append(") {\n")
+                        .append("                    ").append(access.set(value)).append(";\n")
+                        .append("                }\n");
+            }
+        } else if (type.getKind() == TypeKind.ARRAY) {
+            // P.[num]，int[] / long[] / double[]
+            TypeKind component = ((ArrayType) type).getComponentType().getKind();
+            if (component != TypeKind.INT && component != TypeKind.LONG && component != TypeKind.DOUBLE) {
+                warn(field, "unsupported array type " + type + ", field " + name + " is ignored");
+                return null;
+            }
+            String arrayType = type.toString();
+            out.append("                int slot = dot < 0 || next >= 0 ? -1 : slot(src, dot + 1, keyEnd);\n")
+                    .append("                if (slot < 0) {\n")
+                    .append("                    return;\n")
+                    .append("                }\n")
+                    .append("                ").append(arrayType).append(" arr = ").append(access.get()).append(";\n")
+                    .append("                if (arr == null) {\n")
+                    .append("                    arr = new ").append(component.name().toLowerCase()).append("[slot + 1];\n")
+                    .append("                    ").append(access.set("arr")).append(";\n")
+                    .append("                } else if (arr.length <= slot) {\n")
+                    .append("                    int length = arr.length;\n")
+                    .append("                    Object from = arr;\n")
+                    .append("                    arr = java.util.Arrays.copyOf(arr, Math.max(slot + 1, length + (length >> 1)));\n")
+                    .append("                    ").append(access.set("arr")).append(";\n")
+                    .append("                    grew(grown, from, length, arr);\n")
+                    .append("                }\n")
+                    .append("                markUsed(grown, arr, slot);\n")
+                    .append("                if (isNull(src, valueStart, valueEnd)) {\n")
+                    .append("                    arr[slot] = ").append(defaultValue(component)).append(";\n")
+                    .append("                } else if (").append(wellFormedExpr(((ArrayType) type).getComponentType())).append(") {\n")
+                    .append("                    arr[slot] = ").append(valueExpr(((ArrayType) type).getComponentType(), field))
+                    .append(";\n")
+                    .append("                }\n");
+            trims.append("        {\n")
+                    .append("            ").append(arrayType).append(" arr = ").append(access.get()).append(";\n")
+                    .append("            int[] used = arr == null ? null : grown.get(arr);\n")
+                    .append("            if (used != null && used[0] < arr.length) {\n")
+                    .append("                ").append(access.set("java.util.Arrays.copyOf(arr, used[0])")).append(";\n")
+                    .append("            }\n")
+                    .append("        }\n");
+        } else if (isList(type)) {
+            // P.[num] / P.[num].xxx
+            List<? extends TypeMirror> args = ((DeclaredType) type).getTypeArguments();
+            if (args.size() != 1) {
+                warn(field, "raw List field " + name + " is ignored");
+                return null;
+            }
+            TypeMirror elementType = args.get(0);
+            String elementValue = valueExpr(elementType, field);
+            if (elementValue == null && !isParsable(elementType)) {
+                error(field, "element type " + elementType + " of field " + name
+                        + " must be a value type or annotated with @QueryParsable");
+                return null;
+            }
+            out.append("                int slot = dot < 0 ? -1 : slot(src, dot + 1, next < 0 ? keyEnd : next);\n")
+                    .append("                if (slot < 0) {\n")
+                    .append("                    return;\n")
+                    .append("                }\n");
+            if (elementValue == null) {
+                // P.[num].xxx 中 xxx 没有对应的字段时不创建 List 与元素
+                out.append("                if (next >= 0 && !").append(parserOf(elementType))
+                        .append(".hasField(src, next + 1, segmentEnd(src, next + 1, keyEnd))) {\n")
+                        .append("                    return;\n")
+                        .append("                }\n");
+            }
+            out.append("                java.util.List<").append(elementType).append("> list = ")
+                    .append(access.get()).append(";\n")
+                    .append("                if (list == null) {\n")
+                    .append("                    list = new java.util.ArrayList<>(slot + 1);\n")
+                    .append("                    ").append(access.set("list")).append(";\n")
+                    .append("                }\n")
+                    .append("                while (list.size() <= slot) {\n")
+                    .append("                    list.add(null);\n")
+                    .append("                }\n");
+            if (elementValue != null) {
+                // 格式错误时与 ParamParseUtil.getFieldValByType 一样放入 null
+                String check = wellFormedExpr(elementType);
+                out.append("                if (next >= 0) {\n")
+                        .append("                    return;\n")
+                        .append("                }\n")
+                        .append("                list.set(slot, isNull(src, valueStart, valueEnd)")
+                        .append(check == null ? "" : " || !" + check).append(" ? null : ")
+                        .append(elementValue).append(");\n");
+            } else {
+                out.append("                if (next < 0) {\n")
+                        .append("                    return;\n")
+                        .append("                }\n")
+                        .append("                ").append(elementType).append(" element = list.get(slot);\n")
+                        .append("                if (element == null) {\n")
+                        .append("                    element = new ").append(elementType).append("();\n")
+                        .append("                    list.set(slot, element);\n")
+                        .append("                }\n")
+                        .append("                ").append(parserOf(elementType))
+                        .append(".bind(element, src, next + 1, keyEnd, valueStart, valueEnd, grown);\n");
+                trims.append("        {\n")
+                        .append("            java.util.List<").append(elementType).append("> list = ")
+                        .append(access.get()).append(";\n")
+                        .append("            if (list != null) {\n")
+                        .append("                for (").append(elementType).append(" element : list) {\n")
+                        .append("                    if (element != null) {\n")
+                        .append("                        ").append(parserOf(elementType)).append(".trim(element, grown);\n")
+                        .append("                    }\n")
+                        .append("                }\n")
+                        .append("            }\n")
+                        .append("        }\n");
+            }
+        } else if (isParsable(type)) {
+            // P.P.xxx
+            out.append("                if (dot < 0 || !").append(parserOf(type))
+                    .append(".hasField(src, dot + 1, next < 0 ? keyEnd : next)) {\n")
+                    .append("                    return;\n")
+                    .append("                }\n")
+                    .append("                ").append(type).append(" nested = ").append(access.get()).append(";\n")
+                    .append("                if (nested == null) {\n")
+                    .append("                    nested = new ").append(type).append("();\n")
+                    .append("                    ").append(access.set("nested")).append(";\n")
+                    .append("                }\n")
+                    .append("                ").append(parserOf(type))
+                    .append(".bind(nested, src, dot + 1, keyEnd, valueStart, valueEnd, grown);\n");
+            trims.append("        if (").append(access.get()).append(" != null) {\n")
+                    .append("            ").append(parserOf(type)).append(".trim(").append(access.get()).append(", grown);\n")
+                    .append("        }\n");
+        } else {
+            warn(field, "type " + type + " of field " + name + " is neither a value type nor @QueryParsable, ignored");
+            return null;
+        }
+        out.append("                return;\n")
+                .append("            }\n");
+        knownFields.append("            case \"").append(paramName).append("\":\n");
+        return out.toString();
+    }
+
+    /**
+     * 值类型从 src 的 [valueStart, valueEnd) 区间转换的表达式，不是值类型时返回 null；
+     * 枚举常量不存在时表达式的值为 null，field 被 LowCardinality 注解时 String 通过字段的缓存获取
+     */
+    private String valueExpr(TypeMirror type, VariableElement field) {
+        switch (type.getKind()) {
+            case BOOLEAN: return "toBoolean(src, valueStart, valueEnd)";
+            case BYTE:    return "(byte) Integer.parseInt(src, valueStart, valueEnd, 10)";
+            case SHORT:   return "(short) Integer.parseInt(src, valueStart, valueEnd, 10)";
+            case CHAR:    return "src.charAt(valueStart)";
+            case INT:     return "Integer.parseInt(src, valueStart, valueEnd, 10)";
+            case LONG:    return "Long.parseLong(src, valueStart, valueEnd, 10)";
+            case FLOAT:   return "Float.parseFloat(src.substring(valueStart, valueEnd))";
+            case DOUBLE:  return "Double.parseDouble(src.substring(valueStart, valueEnd))";
+            case DECLARED:
+                switch (((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString()) {
+                    case "java.lang.Boolean":   return "toBoolean(src, valueStart, valueEnd)";
+                    case "java.lang.Byte":      return "(byte) Integer.parseInt(src, valueStart, valueEnd, 10)";
+                    case "java.lang.Short":     return "(short) Integer.parseInt(src, valueStart, valueEnd, 10)";
+                    case "java.lang.Character": return "src.charAt(valueStart)";
+                    case "java.lang.Integer":   return "Integer.parseInt(src, valueStart, valueEnd, 10)";
+                    case "java.lang.Long":      return "Long.parseLong(src, valueStart, valueEnd, 10)";
+                    case "java.lang.Float":     return "Float.parseFloat(src.substring(valueStart, valueEnd))";
+                    case "java.lang.Double":    return "Double.parseDouble(src.substring(valueStart, valueEnd))";
+                    case "java.lang.String":
+                        int maxSize = lowCardinalityMaxSize(field);
+                        if (maxSize > 0) {
+                            return "intern(" + internTable(field, maxSize) + ", src, valueStart, valueEnd)";
+                        }
+                        return "src.substring(valueStart, valueEnd)";
+                    case "java.math.BigDecimal": return "new java.math.BigDecimal(src.substring(valueStart, valueEnd))";
+                    default:
+                        if (isEnum(type)) {
+                            return "(" + type + ") findEnum(" + enumTable(type) + ", src, valueStart, valueEnd)";
+                        }
+                        return null;
+                }
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 值类型转换前的格式检查（包括取值范围），检查通过时 valueExpr 一定不会抛出异常；不需要检查时返回 null
+     */
+    private static String wellFormedExpr(TypeMirror type) {
+        String name = type.getKind() == TypeKind.DECLARED
+                ? ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString()
+                : type.getKind().name();
+        switch (name) {
+            case "BYTE":
+            case "java.lang.Byte":       return "isIntegral(src, valueStart, valueEnd, Byte.MIN_VALUE, Byte.MAX_VALUE)";
+            case "SHORT":
+            case "java.lang.Short":      return "isIntegral(src, valueStart, valueEnd, Short.MIN_VALUE, Short.MAX_VALUE)";
+            case "INT":
+            case "java.lang.Integer":    return "isIntegral(src, valueStart, valueEnd, Integer.MIN_VALUE, Integer.MAX_VALUE)";
+            case "LONG":
+            case "java.lang.Long":       return "isIntegral(src, valueStart, valueEnd, Long.MIN_VALUE, Long.MAX_VALUE)";
+            case "FLOAT":
+            case "DOUBLE":
+            case "java.lang.Float":
+            case "java.lang.Double":     return "isFloating(src, valueStart, valueEnd)";
+            case "java.math.BigDecimal": return "isBigDecimal(src, valueStart, valueEnd)";
+            default:                     return null;
+        }
+    }
+
+    /**
+     * 枚举类型对应的静态查找表，同一个类中的同一个枚举类型只生成一次
+     */
+    private String enumTable(TypeMirror type) {
+        String enumType = type.toString();
+        String name = enumTables.get(enumType);
+        if (name == null) {
+            name = "ENUM_" + enumTables.size();
+            enumTables.put(enumType, name);
+            tables.append("    private static final Enum<?>[] ").append(name)
+                    .append(" = enumTable(").append(enumType).append(".values());\n");
+        }
+        return name;
+    }
+
+    /**
+     * LowCardinality 字段的静态缓存，每个字段一个，长度为不小于 maxSize 的 2 的幂
+     */
+    private String internTable(VariableElement field, int maxSize) {
+        String name = "INTERN_" + field.getSimpleName();
+        int capacity = Integer.highestOneBit(Math.max(maxSize, 2) - 1) << 1;
+        if (tables.indexOf(" " + name + " ") < 0) {
+            tables.append("    private static final String[] ").append(name)
+                    .append(" = new String[").append(capacity).append("];\n");
+        }
+        return name;
+    }
+
+    /**
+     * LowCardinality 注解的 maxSize，没有注解时返回 -1
+     */
+    private int lowCardinalityMaxSize(VariableElement field) {
+        for (AnnotationMirror mirror : field.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (!annotationType.getQualifiedName().contentEquals(LOW_CARDINALITY_ANNOTATION)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                    : processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("maxSize")) {
+                    return (Integer) entry.getValue().getValue();
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isEnum(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).asElement().getKind() == ElementKind.ENUM;
+    }
+
+    private static String defaultValue(TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN: return "false";
+            case BYTE:    return "(byte) 0";
+            case SHORT:   return "(short) 0";
+            case CHAR:    return "'\\u0000'";
+            case LONG:    return "0L";
+            case FLOAT:   return "0.0f";
+            case DOUBLE:  return "0.0d";
+            default:      return "0";
+        }
+    }
+
+    /**
+     * 字段的访问方式：非 private 字段直接访问，否则使用 setXxx / getXxx；
+     * final 字段通过静态的 MethodHandle 写入，private 且没有 getXxx 时同样通过 MethodHandle 读取
+     */
+    private Access access(TypeElement owner, VariableElement field) {
+        String name = field.getSimpleName().toString();
+        boolean isPrivate = field.getModifiers().contains(Modifier.PRIVATE);
+        if (field.getModifiers().contains(Modifier.FINAL)) {
+            String getter = isPrivate ? getterOf(owner, field) : null;
+            return finalAccess(owner, field, isPrivate && getter == null ? null
+                    : isPrivate ? "target." + getter + "()" : "target." + name);
+        }
+        if (!isPrivate) {
+            return new Access("target." + name + " = %s", "target." + name, null);
+        }
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        String setter = null;
+        String getter = null;
+        for (ExecutableElement method : ElementFilter.methodsIn(owner.getEnclosedElements())) {
+            if (method.getModifiers().contains(Modifier.PRIVATE) || method.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            String methodName = method.getSimpleName().toString();
+            if (methodName.equals("set" + suffix) && method.getParameters().size() == 1
+                    && processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), field.asType())) {
+                setter = methodName;
+            } else if ((methodName.equals("get" + suffix) || methodName.equals("is" + suffix))
+                    && method.getParameters().isEmpty()
+                    && processingEnv.getTypeUtils().isSameType(method.getReturnType(), field.asType())) {
+                getter = methodName;
+            }
+        }
+        if (setter == null || getter == null) {
+            return null;
+        }
+        return new Access("target." + setter + "(%s)", "target." + getter + "()", null);
+    }
+
+    private String getterOf(TypeElement owner, VariableElement field) {
+        String name = field.getSimpleName().toString();
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (ExecutableElement method : ElementFilter.methodsIn(owner.getEnclosedElements())) {
+            String methodName = method.getSimpleName().toString();
+            if (!method.getModifiers().contains(Modifier.PRIVATE) && !method.getModifiers().contains(Modifier.STATIC)
+                    && (methodName.equals("get" + suffix) || methodName.equals("is" + suffix))
+                    && method.getParameters().isEmpty()
+                    && processingEnv.getTypeUtils().isSameType(method.getReturnType(), field.asType())) {
+                return methodName;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * final 字段的 MethodHandle，get 为 null 时同时生成读取用的 MethodHandle
+     */
+    private Access finalAccess(TypeElement owner, VariableElement field, String get) {
+        String name = field.getSimpleName().toString();
+        String owning = owner.getQualifiedName().toString();
+        String setHandle = "SET_" + name;
+        tables.append("    private static final java.lang.invoke.MethodHandle ").append(setHandle)
+                .append(" = setter(").append(owning).append(".class, \"").append(name).append("\");\n");
+        if (get == null) {
+            String getHandle = "GET_" + name;
+            tables.append("    private static final java.lang.invoke.MethodHandle ").append(getHandle)
+                    .append(" = getter(").append(owning).append(".class, \"").append(name).append("\");\n");
+            get = "get(" + getHandle + ", target)";
+        }
+        hasFinalFields = true;
+        return new Access("set(" + setHandle + ", target, %s)", get, setHandle);
+    }
+
+    private static final class Access {
+        private final String setFormat;
+        private final String get;
+        // final 字段的 MethodHandle 常量名，为 null 时直接访问
+        private final String handle;
+
+        Access(String setFormat, String get, String handle) {
+            this.setFormat = setFormat;
+            this.get = get;
+            this.handle = handle;
+        }
+
+        String set(String value) {
+            return String.format(setFormat, value);
+        }
+
+        String get() {
+            return get;
+        }
+    }
+
+    private boolean isList(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED
+                && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals("java.util.List");
+    }
+
+    private boolean isParsable(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && hasAnnotation(((DeclaredType) type).asElement(), ANNOTATION);
+    }
+
+    private String parserOf(TypeMirror type) {
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        String packageName = packageOf(element);
+        String simpleName = parserSimpleName(element);
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+
+    private String packageOf(TypeElement type) {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        return pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+    }
+
+    /**
+     * 生成的类名与运行时 Class.getName() + "ParamParser" 保持一致，内部类保留 "$"
+     */
+    private String parserSimpleName(TypeElement type) {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String packageName = packageOf(type);
+        return (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(annotationName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private void warn(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, message, element);
+    }
+
+    // 每个生成的解析器都带有一份工具方法，保证生成的代码只依赖 JDK
+    private static final String HELPERS = ""
+            + "    private static int indexOf(String src, char ch, int from, int limit) {\n"
+            + "        for (int i = from; i < limit; i++) {\n"
+            + "            if (src.charAt(i) == ch) {\n"
+            + "                return i;\n"
+            + "            }\n"
+            + "        }\n"
+            + "        return -1;\n"
+            + "    }\n\n"
+            + "    private static boolean isNull(String src, int start, int end) {\n"
+            + "        return start >= end || (end - start == 4 && src.regionMatches(true, start, \"null\", 0, 4));\n"
+            + "    }\n\n"
+            + "    private static boolean toBoolean(String src, int start, int end) {\n"
+            + "        return end - start == 4 && src.regionMatches(true, start, \"true\", 0, 4);\n"
+            + "    }\n\n"
+            + "    // [+-]digits，按负数累加并检查是否在 [min, max] 范围内（与 Long.parseLong 相同）\n"
+            + "    private static boolean isIntegral(String src, int start, int end, long min, long max) {\n"
+            + "        int i = start;\n"
+            + "        boolean negative = i < end && src.charAt(i) == '-';\n"
+            + "        if (i < end && (negative || src.charAt(i) == '+')) {\n"
+            + "            i++;\n"
+            + "        }\n"
+            + "        if (i == end) {\n"
+            + "            return false;\n"
+            + "        }\n"
+            + "        long limit = negative ? min : -max;\n"
+            + "        long val = 0;\n"
+            + "        for (; i < end; i++) {\n"
+            + "            int digit = src.charAt(i) - '0';\n"
+            + "            if (digit < 0 || digit > 9 || val < (limit + digit) / 10) {\n"
+            + "                return false;\n"
+            + "            }\n"
+            + "            val = val * 10 - digit;\n"
+            + "        }\n"
+            + "        return true;\n"
+            + "    }\n\n"
+            + "    // Double.parseDouble 接受的格式：首尾空白、NaN、Infinity、十进制与十六进制浮点数以及 f/F/d/D 后缀\n"
+            + "    private static boolean isFloating(String src, int start, int end) {\n"
+            + "        while (start < end && src.charAt(start) <= ' ') {\n"
+            + "            start++;\n"
+            + "        }\n"
+            + "        while (end > start && src.charAt(end - 1) <= ' ') {\n"
+            + "            end--;\n"
+            + "        }\n"
+            + "        if (start < end && (src.charAt(start) == '-' || src.charAt(start) == '+')) {\n"
+            + "            start++;\n"
+            + "        }\n"
+            + "        if (src.startsWith(\"NaN\", start) || src.startsWith(\"Infinity\", start)) {\n"
+            + "            return end - start == (src.charAt(start) == 'N' ? 3 : 8);\n"
+            + "        }\n"
+            + "        if (end > start && \"fFdD\".indexOf(src.charAt(end - 1)) >= 0) {\n"
+            + "            end--;\n"
+            + "        }\n"
+            + "        boolean hex = end - start > 1 && src.charAt(start) == '0' && (src.charAt(start + 1) | 0x20) == 'x';\n"
+            + "        int i = hex ? start + 2 : start;\n"
+            + "        int radix = hex ? 16 : 10;\n"
+            + "        int digits = 0;\n"
+            + "        for (; i < end && Character.digit(src.charAt(i), radix) >= 0 && src.charAt(i) < 0x80; i++) {\n"
+            + "            digits++;\n"
+            + "        }\n"
+            + "        if (i < end && src.charAt(i) == '.') {\n"
+            + "            for (i++; i < end && Character.digit(src.charAt(i), radix) >= 0 && src.charAt(i) < 0x80; i++) {\n"
+            + "                digits++;\n"
+            + "            }\n"
+            + "        }\n"
+            + "        if (digits == 0) {\n"
+            + "            return false;\n"
+            + "        }\n"
+            + "        if (i < end && (src.charAt(i) | 0x20) == (hex ? 'p' : 'e')) {\n"
+            + "            i++;\n"
+            + "            if (i < end && (src.charAt(i) == '-' || src.charAt(i) == '+')) {\n"
+            + "                i++;\n"
+            + "            }\n"
+            + "            int expStart = i;\n"
+            + "            while (i < end && src.charAt(i) >= '0' && src.charAt(i) <= '9') {\n"
+            + "                i++;\n"
+            + "            }\n"
+            + "            return i > expStart && i == end;\n"
+            + "        }\n"
+            + "        return !hex && i == end;\n"
+            + "    }\n\n"
+            + "    // new BigDecimal 接受的格式：[+-]digits[.digits][(e|E)[+-]digits]，指数与 scale 都在 int 范围内\n"
+            + "    private static boolean isBigDecimal(String src, int start, int end) {\n"
+            + "        int i = start;\n"
+            + "        if (i < end && (src.charAt(i) == '-' || src.charAt(i) == '+')) {\n"
+            + "            i++;\n"
+            + "        }\n"
+            + "        int digits = 0;\n"
+            + "        for (; i < end && src.charAt(i) >= '0' && src.charAt(i) <= '9'; i++) {\n"
+            + "            digits++;\n"
+            + "        }\n"
+            + "        long scale = 0;\n"
+            + "        if (i < end && src.charAt(i) == '.') {\n"
+            + "            for (i++; i < end && src.charAt(i) >= '0' && src.charAt(i) <= '9'; i++) {\n"
+            + "                digits++;\n"
+            + "                scale++;\n"
+            + "            }\n"
+            + "        }\n"
+            + "        if (digits == 0) {\n"
+            + "            return false;\n"
+            + "        }\n"
+            + "        if (i < end && (src.charAt(i) == 'e' || src.charAt(i) == 'E')) {\n"
+            + "            i++;\n"
+            + "            boolean negative = i < end && src.charAt(i) == '-';\n"
+            + "            if (i < end && (negative || src.charAt(i) == '+')) {\n"
+            + "                i++;\n"
+            + "            }\n"
+            + "            if (i == end) {\n"
+            + "                return false;\n"
+            + "            }\n"
+            + "            long exp = 0;\n"
+            + "            for (; i < end; i++) {\n"
+            + "                char c = src.charAt(i);\n"
+            + "                if (c < '0' || c > '9') {\n"
+            + "                    return false;\n"
+            + "                }\n"
+            + "                exp = Math.min(exp * 10 + (c - '0'), 1L << 40);\n"
+            + "            }\n"
+            + "            if (exp > (negative ? 1L << 31 : Integer.MAX_VALUE)) {\n"
+            + "                return false;\n"
+            + "            }\n"
+            + "            scale -= negative ? -exp : exp;\n"
+            + "        }\n"
+            + "        return i == end && scale >= Integer.MIN_VALUE && scale <= Integer.MAX_VALUE;\n"
+            + "    }\n\n"
+            + "    private static Enum<?>[] enumTable(Enum<?>[] constants) {\n"
+            + "        int capacity = Integer.highestOneBit(Math.max(constants.length, 1) * 4 - 1) << 1;\n"
+            + "        Enum<?>[] table = new Enum<?>[capacity];\n"
+            + "        for (Enum<?> e : constants) {\n"
+            + "            int i = e.name().hashCode() & (capacity - 1);\n"
+            + "            while (table[i] != null) {\n"
+            + "                i = (i + 1) & (capacity - 1);\n"
+            + "            }\n"
+            + "            table[i] = e;\n"
+            + "        }\n"
+            + "        return table;\n"
+            + "    }\n\n"
+            + "    private static Enum<?> findEnum(Enum<?>[] table, String src, int start, int end) {\n"
+            + "        int hash = 0;\n"
+            + "        for (int i = start; i < end; i++) {\n"
+            + "            hash = 31 * hash + src.charAt(i);\n"
+            + "        }\n"
+            + "        int mask = table.length - 1;\n"
+            + "        for (int i = hash & mask; table[i] != null; i = (i + 1) & mask) {\n"
+            + "            String name = table[i].name();\n"
+            + "            if (name.length() == end - start && src.regionMatches(start, name, 0, end - start)) {\n"
+            + "                return table[i];\n"
+            + "            }\n"
+            + "        }\n"
+            + "        return null;\n"
+            + "    }\n\n"
+            + "    private static String intern(String[] table, String src, int start, int end) {\n"
+            + "        int hash = 0;\n"
+            + "        for (int i = start; i < end; i++) {\n"
+            + "            hash = 31 * hash + src.charAt(i);\n"
+            + "        }\n"
+            + "        int i = (hash ^ (hash >>> 16)) & (table.length - 1);\n"
+            + "        String cached = table[i];\n"
+            + "        if (cached != null && cached.hashCode() == hash && cached.length() == end - start\n"
+            + "                && src.regionMatches(start, cached, 0, end - start)) {\n"
+            + "            return cached;\n"
+            + "        }\n"
+            + "        String value = src.substring(start, end);\n"
+            + "        table[i] = value;\n"
+            + "        return value;\n"
+            + "    }\n\n"
+            + "    private static void grew(java.util.Map<Object, int[]> grown, Object from, int length, Object to) {\n"
+            + "        int[] used = grown.remove(from);\n"
+            + "        grown.put(to, used != null ? used : new int[] {length});\n"
+            + "    }\n\n"
+            + "    private static void markUsed(java.util.Map<Object, int[]> grown, Object arr, int slot) {\n"
+            + "        int[] used = grown.isEmpty() ? null : grown.get(arr);\n"
+            + "        if (used != null && used[0] <= slot) {\n"
+            + "            used[0] = slot + 1;\n"
+            + "        }\n"
+            + "    }\n\n"
+            + "    private static int segmentEnd(String src, int from, int limit) {\n"
+            + "        int dot = indexOf(src, '.', from, limit);\n"
+            + "        return dot < 0 ? limit : dot;\n"
+            + "    }\n\n"
+            + "    // 与 FieldBinding.MAX_INDEX 相同，超过的下标直接丢弃，不分配\n"
+            + "    private static final int MAX_INDEX =\n"
+            + "            Math.max(1, Math.min(Integer.getInteger(\"paramparse.maxIndex\", 10_000), 100_000_000));\n\n"
+            + "    private static int slot(String src, int start, int end) {\n"
+            + "        if (start >= end) {\n"
+            + "            return -1;\n"
+            + "        }\n"
+            + "        int index = 0;\n"
+            + "        for (int i = start; i < end; i++) {\n"
+            + "            char c = src.charAt(i);\n"
+            + "            if (c < '0' || c > '9') {\n"
+            + "                return -1;\n"
+            + "            }\n"
+            + "            if (index <= MAX_INDEX) {\n"
+            + "                index = index * 10 + (c - '0');\n"
+            + "            }\n"
+            + "        }\n"
+            + "        return index > MAX_INDEX ? -1 : index - 1;\n"
+            + "    }\n";
+
+    // 包含 final 字段时生成的工具方法，MethodHandle 在类初始化时创建，与 ClassBindingPlan 一样无法访问的字段被忽略
+    private static final String FINAL_FIELD_HELPERS = "\n"
+            + "    private static java.lang.invoke.MethodHandle setter(Class<?> type, String name) {\n"
+            + "        try {\n"
+            + "            java.lang.reflect.Field field = type.getDeclaredField(name);\n"
+            + "            field.setAccessible(true);\n"
+            + "            return java.lang.invoke.MethodHandles.lookup().unreflectSetter(field);\n"
+            + "        } catch (ReflectiveOperationException | RuntimeException e) {\n"
+            + "            return null;\n"
+            + "        }\n"
+            + "    }\n\n"
+            + "    private static java.lang.invoke.MethodHandle getter(Class<?> type, String name) {\n"
+            + "        try {\n"
+            + "            java.lang.reflect.Field field = type.getDeclaredField(name);\n"
+            + "            field.setAccessible(true);\n"
+            + "            return java.lang.invoke.MethodHandles.lookup().unreflectGetter(field);\n"
+            + "        } catch (ReflectiveOperationException | RuntimeException e) {\n"
+            + "            return null;\n"
+            + "        }\n"
+            + "    }\n\n"
+            + "    private static void set(java.lang.invoke.MethodHandle setter, Object target, Object value) {\n"
+            + "        try {\n"
+            + "            setter.invoke(target, value);\n"
+            + "        } catch (Throwable e) {\n"
+            + "            throw new IllegalStateException(e);\n"
+            + "        }\n"
+            + "    }\n\n"
+            + "    @SuppressWarnings(\"unchecked\")\n"
+            + "    private static <V> V get(java.lang.invoke.MethodHandle getter, Object target) {\n"
+            + "        try {\n"
+            + "            return (V) getter.invoke(target);\n"
+            + "        } catch (Throwable e) {\n"
+            + "            throw new IllegalStateException(e);\n"
+            + "        }\n"
+            + "    }\n";
+}
@@ -0,0 +1,243 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 目标类的绑定计划，每个 Class 只在第一次使用时通过反射构建一次，之后所有 parse 调用共享：
+ *   1. 缓存无参构造器，替代每次调用 clz.newInstance()；
+ *   2. 缓存 参数名 -> FieldBinding 的映射，参数名即首字母大写的字段名，比如 Container -> container；
+ *   3. 静态字段与被 SkipMappingValueAnnotation 注解的字段在构建时就被排除，其余字段已设置为可访问，无法赋值的字段被忽略；
+ *   4. 嵌套类型 / List 泛型元素类型的绑定计划通过 FieldBinding 延迟获取；
+ *   5. 额外维护一张按字符区间查找的开放寻址表，流式解析时无需截取参数名即可定位字段；
+ *   6. 被 QueryParsable 注解的类，查找编译期生成的 ${类名}ParamParser，parse 时直接调用，不再走反射。
+ */
+final class ClassBindingPlan {
+
+    private static final ClassValue<ClassBindingPlan> PLANS = new ClassValue<ClassBindingPlan>() {
+        @Override
+        protected ClassBindingPlan computeValue(Class<?> type) {
+            return new ClassBindingPlan(type);
+        }
+    };
+
+    /**
+     * 获取指定 Class 的绑定计划，不存在时构建
+     */
+    static ClassBindingPlan of(Class<?> clz) {
+        return PLANS.get(clz);
+    }
+
+    private final Class<?> type;
+    private final Constructor<?> constructor;
+    private final Map<String, FieldBinding> fields = new LinkedHashMap<>();
+    private final Set<String> skippedFields = new HashSet<>();
+    // 按声明顺序排列的字段绑定，序列化时使用
+    private final FieldBinding[] ordered;
+    // 开放寻址表，长度为 2 的幂，hash 与 String.hashCode 一致
+    private final FieldBinding[] table;
+    // 生成的解析器的 parse(String) 方法，类型为 (String)Object，没有时为 null
+    private final MethodHandle generatedParser;
+    // 被 QueryParsable 注解却找不到生成的解析器时的原因，只通知一次
+    private volatile Exception missingParser;
+
+    private ClassBindingPlan(Class<?> type) {
+        this.type = type;
+        this.constructor = findConstructor(type);
+        this.generatedParser = findGeneratedParser();
+
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isSynthetic() || Modifier.isStatic(field.getModifiers())) {
+                continue; // 静态字段（比如 serialVersionUID）不属于实例的数据
+            }
+            String paramName = upperCaseFirstChar(field.getName());
+            if (!field.getName().equals(lowerCaseFirstChar(paramName))) {
+                continue; // 参数名首字母小写后无法还原的字段，原先也无法被映射
+            }
+            if (field.getDeclaredAnnotation(SkipMappingValueAnnotation.class) != null) {
+                skippedFields.add(paramName);
+                continue;
+            }
+            FieldBinding binding = bind(field, paramName);
+            if (binding != null) {
+                fields.put(paramName, binding);
+            }
+        }
+
+        this.ordered = fields.values().toArray(new FieldBinding[0]);
+
+        int capacity = Integer.highestOneBit(Math.max(fields.size(), 1) * 4 - 1) << 1;
+        this.table = new FieldBinding[capacity];
+        for (FieldBinding binding : fields.values()) {
+            int i = binding.paramName.hashCode() & (capacity - 1);
+            while (table[i] != null) {
+                i = (i + 1) & (capacity - 1);
+            }
+            table[i] = binding;
+        }
+    }
+
+    /**
+     * 构建字段绑定；final 字段无论可见性都需要 setAccessible(true) 才能赋值，
+     * 无法访问的字段（比如模块未开放）直接忽略，不影响同一个类的其他字段
+     */
+    private static FieldBinding bind(Field field, String paramName) {
+        try {
+            if (!Modifier.isPublic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+                field.setAccessible(true);
+            }
+            return new FieldBinding(field, paramName);
+        } catch (IllegalStateException | InaccessibleObjectException | SecurityException e) {
+            return null;
+        }
+    }
+
+    Class<?> type() {
+        return type;
+    }
+
+    /**
+     * 通过参数名（首字母大写）获取字段绑定，字段不存在或被跳过时返回 null
+     */
+    FieldBinding field(String paramName) {
+        return fields.get(paramName);
+    }
+
+    /**
+     * 按声明顺序返回所有可映射的字段绑定，调用方不得修改返回的数组
+     */
+    FieldBinding[] fields() {
+        return ordered;
+    }
+
+    /**
+     * 通过 [start, end) 区间内的参数名获取字段绑定，不会创建中间 String
+     */
+    FieldBinding field(CharSequence src, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + src.charAt(i);
+        }
+        int mask = table.length - 1;
+        for (int i = hash & mask; table[i] != null; i = (i + 1) & mask) {
+            if (nameEquals(table[i].paramName, src, start, end)) {
+                return table[i];
+            }
+        }
+        return null;
+    }
+
+    private static boolean nameEquals(String name, CharSequence src, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != src.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 判断参数名是否对应一个被 SkipMappingValueAnnotation 注解的字段
+     */
+    boolean isSkipped(String paramName) {
+        return skippedFields.contains(paramName);
+    }
+
+    /**
+     * 通过缓存的无参构造器实例化目标类
+     */
+    Object newInstance() throws InstantiationException, IllegalAccessException {
+        if (constructor == null) {
+            throw new InstantiationException(type.getName() + " has no accessible no-arg constructor");
+        }
+        try {
+            return constructor.newInstance();
+        } catch (InvocationTargetException e) {
+            InstantiationException ex = new InstantiationException(type.getName() + " constructor failed");
+            ex.initCause(e.getCause());
+            throw ex;
+        }
+    }
+
+    /**
+     * 是否存在编译期生成的解析器
+     */
+    boolean hasGeneratedParser() {
+        return generatedParser != null;
+    }
+
+    /**
+     * 通过生成的解析器解析查询字符串，调用前需要通过 hasGeneratedParser 判断
+     */
+    Object parseGenerated(String queryString) {
+        try {
+            return (Object) generatedParser.invokeExact(queryString);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 被 QueryParsable 注解却没有生成的解析器时，通过 ctx 通知一次（ParseListener.onError），之后不再通知；
+     * 没有监听器时保留到下一次解析
+     */
+    void reportMissingParser(ParseContext ctx) {
+        Exception cause = missingParser;
+        if (cause != null && ctx.active()) {
+            missingParser = null;
+            ctx.error(type, cause);
+        }
+    }
+
+    private MethodHandle findGeneratedParser() {
+        if (type.getDeclaredAnnotation(QueryParsable.class) == null) {
+            return null;
+        }
+        try {
+            Class<?> parser = Class.forName(type.getName() + "ParamParser", true, type.getClassLoader());
+            return MethodHandles.publicLookup()
+                    .findStatic(parser, "parse", MethodType.methodType(type, String.class))
+                    .asType(MethodType.methodType(Object.class, String.class));
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            missingParser = new IllegalStateException(type + " has no generated parser, fall back to reflection", e);
+            return null;
+        }
+    }
+
+    private static Constructor<?> findConstructor(Class<?> type) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            if (!Modifier.isPublic(constructor.getModifiers()) || !Modifier.isPublic(type.getModifiers())) {
+                constructor.setAccessible(true);
+            }
+            return constructor;
+        } catch (NoSuchMethodException | RuntimeException e) {
+            return null; // 基本类型、接口等没有无参构造器的类型
+        }
+    }
+
+    private static String upperCaseFirstChar(String data) {
+        char[] chs = data.toCharArray();
+        chs[0] = Character.toUpperCase(chs[0]);
+        return String.valueOf(chs);
+    }
+
+    private static String lowerCaseFirstChar(String data) {
+        char[] chs = data.toCharArray();
+        chs[0] = Character.toLowerCase(chs[0]);
+        return String.valueOf(chs);
+    }
+}
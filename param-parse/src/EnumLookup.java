@@ -0,0 +1,63 @@
+/**
+ * 枚举常量的查找表，每个枚举类只在第一次使用时构建一次：
+ *   1. 按常量名（name()）精确匹配，比如 ImagePullPolicy=IfNotPresent；
+ *   2. 开放寻址表按字符区间查找，hash 与 String.hashCode 一致，不截取中间 String，也不像 Enum.valueOf 那样抛出异常。
+ */
+final class EnumLookup {
+
+    private static final ClassValue<EnumLookup> LOOKUPS = new ClassValue<EnumLookup>() {
+        @Override
+        protected EnumLookup computeValue(Class<?> type) {
+            return new EnumLookup(type);
+        }
+    };
+
+    static EnumLookup of(Class<?> enumType) {
+        return LOOKUPS.get(enumType);
+    }
+
+    private final Enum<?>[] table;
+
+    private EnumLookup(Class<?> enumType) {
+        Object[] constants = enumType.getEnumConstants();
+        int capacity = Integer.highestOneBit(Math.max(constants.length, 1) * 4 - 1) << 1;
+        this.table = new Enum<?>[capacity];
+        for (Object constant : constants) {
+            Enum<?> e = (Enum<?>) constant;
+            int i = e.name().hashCode() & (capacity - 1);
+            while (table[i] != null) {
+                i = (i + 1) & (capacity - 1);
+            }
+            table[i] = e;
+        }
+    }
+
+    /**
+     * 查找 [start, end) 区间对应的常量，不存在时返回 null
+     */
+    Enum<?> find(CharSequence src, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + src.charAt(i);
+        }
+        int mask = table.length - 1;
+        for (int i = hash & mask; table[i] != null; i = (i + 1) & mask) {
+            if (nameEquals(table[i].name(), src, start, end)) {
+                return table[i];
+            }
+        }
+        return null;
+    }
+
+    private static boolean nameEquals(String name, CharSequence src, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != src.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,354 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+
+/**
+ * 字段访问器，随 FieldBinding 为每个字段生成一次类型精确的 MethodHandle：
+ *   1. 基本类型字段的 setter 签名为 (Object, int)void 等，配合 invokeExact 调用，不发生装箱；
+ *   2. 数值直接从查询字符串的字符区间解析，比如 Integer.parseInt(CharSequence, begin, end, radix)，
+ *      不再截取中间 String（float / double 仍需要截取，JDK 没有区间解析的方法）；
+ *   3. 引用类型字段使用 (Object, Object)void 的 setter 与 (Object)Object 的 getter；
+ *   4. 基本类型字段额外生成 (Object)int 等签名的 getter，序列化时直接写出，不发生装箱；
+ *   5. 枚举字段通过 EnumLookup 按常量名查找，被 LowCardinality 注解的 String 字段通过 StringInterner 复用实例。
+ *
+ * 取值规则与 getFieldValByType 保持一致：包装类型遇到空值或 "null" 不赋值，基本类型赋默认值。
+ * 数值在解析前先检查格式，格式错误时直接返回 false，不构造 NumberFormatException。
+ */
+final class FieldAccessor {
+
+    enum Kind {
+        BOOLEAN, BYTE, SHORT, CHAR, INT, LONG, FLOAT, DOUBLE, STRING, BIG_DECIMAL, ENUM, OTHER
+    }
+
+    final Kind kind;
+    // 是否为基本数据类型字段
+    final boolean primitive;
+    private final MethodHandle setter;
+    private final MethodHandle getter;
+    // 基本类型字段签名精确的 getter，引用类型字段为 null
+    private final MethodHandle primitiveGetter;
+    // 枚举字段的常量查找表，其他字段为 null
+    private final EnumLookup enumLookup;
+    // LowCardinality 字段的 String 缓存，字段本身或 List 元素为 String 时使用，没有注解时为 null
+    final StringInterner interner;
+
+    FieldAccessor(Field field) {
+        Class<?> type = field.getType();
+        this.kind = kindOf(type);
+        this.primitive = type.isPrimitive();
+        this.enumLookup = kind == Kind.ENUM ? EnumLookup.of(type) : null;
+        LowCardinality lowCardinality = field.getDeclaredAnnotation(LowCardinality.class);
+        this.interner = lowCardinality == null ? null : new StringInterner(lowCardinality.maxSize());
+
+        MethodHandle rawSetter;
+        MethodHandle rawGetter;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+            rawGetter = lookup.unreflectGetter(field);
+            // final 字段只能通过已 setAccessible(true) 的 Field 获取 setter，与可见性无关
+            rawSetter = Modifier.isFinal(field.getModifiers())
+                    ? MethodHandles.lookup().unreflectSetter(field)
+                    : lookup.unreflectSetter(field);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("can not access field " + field, e);
+        }
+        // 基本类型保留原始参数类型，引用类型统一为 Object
+        Class<?> valueType = primitive ? type : Object.class;
+        this.setter = rawSetter.asType(MethodType.methodType(void.class, Object.class, valueType));
+        this.getter = rawGetter.asType(MethodType.methodType(Object.class, Object.class));
+        this.primitiveGetter = primitive ? rawGetter.asType(MethodType.methodType(type, Object.class)) : null;
+    }
+
+    /**
+     * 是否为可以直接从字符串转换的类型（基本类型、包装类型、String、BigDecimal、枚举）
+     */
+    boolean isValueType() {
+        return kind != Kind.OTHER;
+    }
+
+    Object get(Object target) {
+        try {
+            return getter.invokeExact(target);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * 设置引用类型字段的值，比如嵌套对象、List
+     */
+    void setObject(Object target, Object value) {
+        try {
+            setter.invokeExact(target, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * 将 [start, end) 区间的字符转换为字段类型后赋值
+     * @return 数值格式错误或超出范围时返回 false，此时字段不会被修改
+     */
+    boolean set(Object target, CharSequence src, int start, int end) {
+        try {
+            if (isNullValue(src, start, end)) {
+                if (primitive) {
+                    setDefault(target);
+                }
+                return true;
+            }
+            if (!isWellFormed(kind, src, start, end)) {
+                return false;
+            }
+            switch (kind) {
+                case BOOLEAN: {
+                    boolean val = end - start == 4 && regionMatchesIgnoreCase(src, start, "true");
+                    if (primitive) setter.invokeExact(target, val);
+                    else setter.invokeExact(target, (Object) val);
+                    break;
+                }
+                case BYTE: {
+                    byte val = (byte) parseIntInRange(src, start, end, Byte.MIN_VALUE, Byte.MAX_VALUE);
+                    if (primitive) setter.invokeExact(target, val);
+                    else setter.invokeExact(target, (Object) val);
+                    break;
+                }
+                case SHORT: {
+                    short val = (short) parseIntInRange(src, start, end, Short.MIN_VALUE, Short.MAX_VALUE);
+                    if (primitive) setter.invokeExact(target, val);
+                    else setter.invokeExact(target, (Object) val);
+                    break;
+                }
+                case CHAR: {
+                    char val = src.charAt(start);
+                    if (primitive) setter.invokeExact(target, val);
+                    else setter.invokeExact(target, (Object) val);
+                    break;
+                }
+                case INT: {
+                    int val = Integer.parseInt(src, start, end, 10);
+                    if (primitive) setter.invokeExact(target, val);
+                    else setter.invokeExact(target, (Object) val);
+                    break;
+                }
+                case LONG: {
+                    long val = Long.parseLong(src, start, end, 10);
+                    if (primitive) setter.invokeExact(target, val);
+                    else setter.invokeExact(target, (Object) val);
+                    break;
+                }
+                case FLOAT: {
+                    float val = Float.parseFloat(src.subSequence(start, end).toString());
+                    if (primitive) setter.invokeExact(target, val);
+                    else setter.invokeExact(target, (Object) val);
+                    break;
+                }
+                case DOUBLE: {
+                    double val = Double.parseDouble(src.subSequence(start, end).toString());
+                    if (primitive) setter.invokeExact(target, val);
+                    else setter.invokeExact(target, (Object) val);
+                    break;
+                }
+                case STRING:
+                    setter.invokeExact(target, (Object) toString(src, start, end));
+                    break;
+                case ENUM: {
+                    Enum<?> val = enumLookup.find(src, start, end);
+                    if (val == null) {
+                        return false;
+                    }
+                    setter.invokeExact(target, (Object) val);
+                    break;
+                }
+                case BIG_DECIMAL:
+                    setter.invokeExact(target, (Object) new BigDecimal(src.subSequence(start, end).toString()));
+                    break;
+                default:
+                    break;
+            }
+            return true;
+        } catch (NumberFormatException e) {
+            return false; // 格式正确但超出范围，比如 Integer 溢出
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * 截取 [start, end) 区间的字符串，LowCardinality 字段优先从缓存中获取
+     */
+    String toString(CharSequence src, int start, int end) {
+        return interner != null ? interner.intern(src, start, end) : src.subSequence(start, end).toString();
+    }
+
+    /**
+     * 将基本类型字段的值写到 out，通过签名精确的 getter 读取，不发生装箱
+     */
+    void writePrimitiveTo(Object target, FormParamWriter out) {
+        try {
+            switch (kind) {
+                case BOOLEAN: out.putBoolean((boolean) primitiveGetter.invokeExact(target)); break;
+                case BYTE:    out.putLong((byte) primitiveGetter.invokeExact(target)); break;
+                case SHORT:   out.putLong((short) primitiveGetter.invokeExact(target)); break;
+                case CHAR:    out.putChar((char) primitiveGetter.invokeExact(target)); break;
+                case INT:     out.putLong((int) primitiveGetter.invokeExact(target)); break;
+                case LONG:    out.putLong((long) primitiveGetter.invokeExact(target)); break;
+                case FLOAT:   out.putFloat((float) primitiveGetter.invokeExact(target)); break;
+                case DOUBLE:  out.putDouble((double) primitiveGetter.invokeExact(target)); break;
+                default: break;
+            }
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * 基本类型字段遇到空值时设置为默认值
+     */
+    private void setDefault(Object target) throws Throwable {
+        switch (kind) {
+            case BOOLEAN: setter.invokeExact(target, false); break;
+            case BYTE:    setter.invokeExact(target, (byte) 0); break;
+            case SHORT:   setter.invokeExact(target, (short) 0); break;
+            case CHAR:    setter.invokeExact(target, '\u0000'); break;
+            case INT:     setter.invokeExact(target, 0); break;
+            case LONG:    setter.invokeExact(target, 0L); break;
+            case FLOAT:   setter.invokeExact(target, 0.0f); break;
+            case DOUBLE:  setter.invokeExact(target, 0.0d); break;
+            default: break;
+        }
+    }
+
+    /**
+     * 空字符串或者 "null"（忽略大小写）视为空值
+     */
+    static boolean isNullValue(CharSequence src, int start, int end) {
+        return start >= end || (end - start == 4 && regionMatchesIgnoreCase(src, start, "null"));
+    }
+
+    private static boolean regionMatchesIgnoreCase(CharSequence src, int start, String expected) {
+        for (int i = 0; i < expected.length(); i++) {
+            if (Character.toLowerCase(src.charAt(start + i)) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 解析前检查数值格式，返回 false 时一定无法解析；返回 true 时仍可能因为超出范围解析失败
+     */
+    static boolean isWellFormed(Kind kind, CharSequence src, int start, int end) {
+        switch (kind) {
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+                return isIntegral(src, start, end);
+            case FLOAT:
+            case DOUBLE:
+                // NaN、Infinity 与十六进制浮点数交给 JDK 判断
+                return isDecimal(src, start, end, true) || containsAny(src, start, end, "NIxX");
+            case BIG_DECIMAL:
+                return isDecimal(src, start, end, false);
+            default:
+                return true;
+        }
+    }
+
+    private static boolean isIntegral(CharSequence src, int start, int end) {
+        int i = start;
+        if (i < end && (src.charAt(i) == '-' || src.charAt(i) == '+')) {
+            i++;
+        }
+        if (i == end) {
+            return false;
+        }
+        for (; i < end; i++) {
+            if (!ParamTrie.isDigit(src.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * [+-]digits[.digits][(e|E)[+-]digits]，lenient 为 true 时允许首尾空白与 f/F/d/D 后缀（与 Double.parseDouble 一致）
+     */
+    private static boolean isDecimal(CharSequence src, int start, int end, boolean lenient) {
+        if (lenient) {
+            while (start < end && src.charAt(start) <= ' ') start++;
+            while (end > start && src.charAt(end - 1) <= ' ') end--;
+            if (end > start && "fFdD".indexOf(src.charAt(end - 1)) >= 0) end--;
+        }
+        int i = start;
+        if (i < end && (src.charAt(i) == '-' || src.charAt(i) == '+')) {
+            i++;
+        }
+        int digits = 0;
+        for (; i < end && ParamTrie.isDigit(src.charAt(i)); i++) digits++;
+        if (i < end && src.charAt(i) == '.') {
+            for (i++; i < end && ParamTrie.isDigit(src.charAt(i)); i++) digits++;
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < end && (src.charAt(i) == 'e' || src.charAt(i) == 'E')) {
+            i++;
+            if (i < end && (src.charAt(i) == '-' || src.charAt(i) == '+')) {
+                i++;
+            }
+            int expDigits = 0;
+            for (; i < end && ParamTrie.isDigit(src.charAt(i)); i++) expDigits++;
+            if (expDigits == 0) {
+                return false;
+            }
+        }
+        return i == end;
+    }
+
+    private static boolean containsAny(CharSequence src, int start, int end, String chars) {
+        for (int i = start; i < end; i++) {
+            if (chars.indexOf(src.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int parseIntInRange(CharSequence src, int start, int end, int min, int max) {
+        int val = Integer.parseInt(src, start, end, 10);
+        if (val < min || val > max) {
+            throw new NumberFormatException("Value out of range. Value:\"" + src.subSequence(start, end) + "\"");
+        }
+        return val;
+    }
+
+    static Kind kindOf(Class<?> type) {
+        if (type == boolean.class || type == Boolean.class) return Kind.BOOLEAN;
+        if (type == byte.class || type == Byte.class) return Kind.BYTE;
+        if (type == short.class || type == Short.class) return Kind.SHORT;
+        if (type == char.class || type == Character.class) return Kind.CHAR;
+        if (type == int.class || type == Integer.class) return Kind.INT;
+        if (type == long.class || type == Long.class) return Kind.LONG;
+        if (type == float.class || type == Float.class) return Kind.FLOAT;
+        if (type == double.class || type == Double.class) return Kind.DOUBLE;
+        if (type == String.class) return Kind.STRING;
+        if (type == BigDecimal.class) return Kind.BIG_DECIMAL;
+        if (type.isEnum()) return Kind.ENUM;
+        return Kind.OTHER;
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new IllegalStateException(e);
+    }
+}
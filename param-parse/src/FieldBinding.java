@@ -0,0 +1,169 @@
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 单个字段的绑定信息，随 ClassBindingPlan 一起构建并缓存：
+ *   1. Field 本身（已设置为可访问）及其类型；
+ *   2. 若为 List 字段，记录泛型参数类型以及对应的 Class，替代每次请求的 Class.forName；
+ *   3. 嵌套类型、List 元素类型的绑定计划；
+ *   4. 类型精确的 FieldAccessor，用于取值和赋值；
+ *   5. List / int[] / long[] / double[] 字段按下标直接定位元素，下标从 1 开始，Command.1 对应第 0 个元素，
+ *      下标不能超过 MAX_INDEX。
+ */
+final class FieldBinding {
+    /**
+     * 允许的最大下标，下标来自请求，不加限制时 Vals.999999999=1 会一次分配近 10 亿个位置；
+     * 可以通过 -Dparamparse.maxIndex 调整
+     */
+    static final int MAX_INDEX = Math.max(1, Math.min(Integer.getInteger("paramparse.maxIndex", 10_000), 100_000_000));
+    // slotOf 的返回值，下标是合法的数字但超过 MAX_INDEX
+    static final int SLOT_OUT_OF_RANGE = -2;
+
+    final Field field;
+    // 查询参数中的名字，即首字母大写的字段名
+    final String paramName;
+    final Class<?> type;
+    // 是否为带泛型参数的 List 字段
+    final boolean list;
+    // List 的泛型参数类型，非 List 字段为 null
+    final Type elementType;
+    // List 泛型参数对应的 Class，泛型参数不是 Class（比如 List<List<String>>）时为 null
+    final Class<?> elementClass;
+    // 是否为 int[] / long[] / double[] 字段
+    final boolean array;
+    final FieldAccessor accessor;
+
+    FieldBinding(Field field, String paramName) {
+        this.field = field;
+        this.paramName = paramName;
+        this.type = field.getType();
+        this.accessor = new FieldAccessor(field);
+
+        Type genericType = field.getGenericType();
+        if (type == List.class && genericType instanceof ParameterizedType) {
+            Type argumentType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            this.list = true;
+            this.elementType = argumentType;
+            this.elementClass = argumentType instanceof Class ? (Class<?>) argumentType : null;
+        } else {
+            this.list = false;
+            this.elementType = null;
+            this.elementClass = null;
+        }
+        this.array = type == int[].class || type == long[].class || type == double[].class;
+    }
+
+    /**
+     * 是否为按下标绑定的字段（List 或者基本类型数组）
+     */
+    boolean indexed() {
+        return list || array;
+    }
+
+    /**
+     * 将 ${变量名}.${整型下标} 中的下标转换为元素位置，下标从 1 开始，不合法时返回 -1，
+     * 超过 MAX_INDEX 时返回 SLOT_OUT_OF_RANGE，调用方需要通过 ParseContext 通知并丢弃
+     */
+    static int slotOf(CharSequence src, int start, int end) {
+        if (start >= end) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = start; i < end; i++) {
+            char c = src.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            if (index <= MAX_INDEX) {
+                index = index * 10 + (c - '0'); // 超过 MAX_INDEX 后不再累加，避免溢出
+            }
+        }
+        return index > MAX_INDEX ? SLOT_OUT_OF_RANGE : index - 1;
+    }
+
+    /**
+     * 获取 List 字段的实例并保证长度至少为 size，空的话按 size 一次性初始化为 ArrayList，不足的位置补 null
+     */
+    List listOfSize(Object target, int size) {
+        List listFieldVal = (List) accessor.get(target);
+        if (listFieldVal == null) {
+            listFieldVal = new ArrayList(size);
+            accessor.setObject(target, listFieldVal);
+        } else if (listFieldVal instanceof ArrayList) {
+            ((ArrayList) listFieldVal).ensureCapacity(size);
+        }
+        while (listFieldVal.size() < size) {
+            listFieldVal.add(null);
+        }
+        return listFieldVal;
+    }
+
+    /**
+     * 获取数组字段的实例并保证长度至少为 length，不足时按 length 重新分配并拷贝原有元素
+     */
+    Object arrayOfLength(Object target, int length) {
+        Object arr = accessor.get(target);
+        if (arr == null) {
+            if (type == int[].class) {
+                arr = new int[length];
+            } else if (type == long[].class) {
+                arr = new long[length];
+            } else {
+                arr = new double[length];
+            }
+            accessor.setObject(target, arr);
+        } else if (Array.getLength(arr) < length) {
+            if (type == int[].class) {
+                arr = Arrays.copyOf((int[]) arr, length);
+            } else if (type == long[].class) {
+                arr = Arrays.copyOf((long[]) arr, length);
+            } else {
+                arr = Arrays.copyOf((double[]) arr, length);
+            }
+            accessor.setObject(target, arr);
+        }
+        return arr;
+    }
+
+    /**
+     * 将 [start, end) 区间的值直接写入数组的 slot 位置，空值写入 0
+     * @return 数值格式错误或超出范围时返回 false
+     */
+    boolean setArrayElement(Object arr, int slot, CharSequence src, int start, int end) {
+        boolean empty = FieldAccessor.isNullValue(src, start, end);
+        try {
+            if (type == int[].class) {
+                if (!empty && !FieldAccessor.isWellFormed(FieldAccessor.Kind.INT, src, start, end)) return false;
+                ((int[]) arr)[slot] = empty ? 0 : Integer.parseInt(src, start, end, 10);
+            } else if (type == long[].class) {
+                if (!empty && !FieldAccessor.isWellFormed(FieldAccessor.Kind.LONG, src, start, end)) return false;
+                ((long[]) arr)[slot] = empty ? 0L : Long.parseLong(src, start, end, 10);
+            } else {
+                if (!empty && !FieldAccessor.isWellFormed(FieldAccessor.Kind.DOUBLE, src, start, end)) return false;
+                ((double[]) arr)[slot] = empty ? 0.0d : Double.parseDouble(src.subSequence(start, end).toString());
+            }
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 字段自身类型的绑定计划，用于 ${变量名}.${变量名} 形式的嵌套字段
+     */
+    ClassBindingPlan nestedPlan() {
+        return ClassBindingPlan.of(type);
+    }
+
+    /**
+     * List 元素类型的绑定计划，用于 ${变量名}.${整型下标}.xxx 形式的字段
+     */
+    ClassBindingPlan elementPlan() {
+        return elementClass == null ? null : ClassBindingPlan.of(elementClass);
+    }
+}
@@ -0,0 +1,174 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * form-encoded 请求体的增量读取器，逐字节处理输入：
+ *   1. "&" 结束一个键值对，第一个未编码的 "=" 分隔 key 与 value，"+" 解码为空格；
+ *   2. "%XX" 就地解码到当前键值对的字节缓冲区，解码后的 "&"、"=" 不再作为分割符；
+ *   3. 键值对结束时按 UTF-8 解码到复用的 CharBuffer，交给 PathBinder 绑定。
+ *
+ * 任意时刻只在内存中保存一个键值对，缓冲区在整个读取过程中复用。
+ */
+final class FormParamReader {
+    private static final int CHUNK_SIZE = 8192;
+
+    private final PathBinder binder;
+    private final CharsetDecoder utf8 = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    // 当前键值对解码后的字节，[0, keyLength) 为 key，[keyLength, length) 为 value
+    private byte[] pair = new byte[256];
+    private ByteBuffer pairView = ByteBuffer.wrap(pair);
+    private int length;
+    private int keyLength = -1;
+    // value 中出现了第二个未编码的 "="，整个键值对丢弃
+    private boolean invalid;
+    // 正在读取的 "%XX" 已经读到的十六进制位数，以及对应的值
+    private int hexDigits = -1;
+    private int hexValue;
+    private byte hexFirst;
+    private CharBuffer chars = CharBuffer.allocate(256);
+
+    FormParamReader(PathBinder binder) {
+        this.binder = binder;
+    }
+
+    void read(ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            feed(buffer.get());
+        }
+    }
+
+    void read(ReadableByteChannel channel) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+        while (channel.read(chunk) >= 0) {
+            chunk.flip();
+            read(chunk);
+            chunk.clear();
+        }
+    }
+
+    /**
+     * 读取字符形式的输入，非 ASCII 字符先按 UTF-8 编码，与字节输入走同一条解码路径
+     */
+    void read(CharSequence content) {
+        int len = content.length();
+        for (int i = 0; i < len; i++) {
+            char c = content.charAt(i);
+            if (c < 0x80) {
+                feed((byte) c);
+                continue;
+            }
+            int cp = c;
+            if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(content.charAt(i + 1))) {
+                cp = Character.toCodePoint(c, content.charAt(++i));
+            }
+            if (cp < 0x800) {
+                feed((byte) (0xC0 | (cp >> 6)));
+            } else if (cp < 0x10000) {
+                feed((byte) (0xE0 | (cp >> 12)));
+                feed((byte) (0x80 | ((cp >> 6) & 0x3F)));
+            } else {
+                feed((byte) (0xF0 | (cp >> 18)));
+                feed((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                feed((byte) (0x80 | ((cp >> 6) & 0x3F)));
+            }
+            feed((byte) (0x80 | (cp & 0x3F)));
+        }
+    }
+
+    /**
+     * 输入结束，处理最后一个键值对
+     */
+    void finish() {
+        endPair();
+    }
+
+    private void feed(byte b) {
+        if (hexDigits >= 0) {
+            int digit = Character.digit(b, 16);
+            if (digit >= 0) {
+                hexValue = (hexValue << 4) | digit;
+                hexFirst = b;
+                if (++hexDigits == 2) {
+                    append((byte) hexValue);
+                    hexDigits = -1;
+                }
+                return;
+            }
+            flushPercent(); // 不是合法的 %XX，按原样保留
+        }
+        switch (b) {
+            case '&':
+                endPair();
+                break;
+            case '=':
+                if (keyLength < 0) {
+                    keyLength = length;
+                } else {
+                    invalid = true;
+                }
+                break;
+            case '+':
+                append((byte) ' ');
+                break;
+            case '%':
+                hexDigits = 0;
+                hexValue = 0;
+                break;
+            default:
+                append(b);
+        }
+    }
+
+    private void flushPercent() {
+        append((byte) '%');
+        if (hexDigits == 1) {
+            append(hexFirst);
+        }
+        hexDigits = -1;
+    }
+
+    private void append(byte b) {
+        if (length == pair.length) {
+            byte[] bigger = new byte[pair.length << 1];
+            System.arraycopy(pair, 0, bigger, 0, length);
+            pair = bigger;
+            pairView = ByteBuffer.wrap(pair);
+        }
+        pair[length++] = b;
+    }
+
+    private void endPair() {
+        if (hexDigits >= 0) {
+            flushPercent();
+        }
+        if (!invalid && keyLength > 0 && length > keyLength) {
+            if (chars.capacity() < length) {
+                chars = CharBuffer.allocate(Math.max(length, chars.capacity() << 1));
+            }
+            chars.clear();
+            decode(0, keyLength);
+            int keyEnd = chars.position();
+            decode(keyLength, length);
+            chars.flip();
+            binder.bind(chars, 0, keyEnd, keyEnd, chars.limit());
+        }
+        length = 0;
+        keyLength = -1;
+        invalid = false;
+    }
+
+    private void decode(int from, int to) {
+        pairView.limit(to).position(from);
+        utf8.reset();
+        utf8.decode(pairView, chars, true);
+        utf8.flush(chars);
+    }
+}
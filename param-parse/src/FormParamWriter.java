@@ -0,0 +1,248 @@
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * 对象到查询字符串的序列化，ParamParseUtil.format 的实现：
+ *   1. 按 ClassBindingPlan 遍历字段，被 SkipMappingValueAnnotation 注解的字段与静态字段不输出；
+ *   2. 输出形如 Container.5.Environment.1.Key=PORT，下标从 1 开始，null 元素跳过但保留下标；
+ *   3. 值按 form-encoded 规则编码（空格为 "+"，其余保留字符与非 ASCII 字符为 UTF-8 的 %XX），
+ *      可以通过 parseEncoded / parse(Class, ByteBuffer) 还原；
+ *   4. 直接写入调用方提供的 StringBuilder 或 ByteBuffer，整数逐位写出，不创建中间 String。
+ */
+final class FormParamWriter {
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final StringBuilder chars;
+    private final ByteBuffer bytes;
+    // 当前字段的路径，比如 Container.5.Environment.1.Key
+    private final StringBuilder path = new StringBuilder(64);
+    private boolean first = true;
+
+    FormParamWriter(StringBuilder chars) {
+        this.chars = chars;
+        this.bytes = null;
+    }
+
+    FormParamWriter(ByteBuffer bytes) {
+        this.chars = null;
+        this.bytes = bytes;
+    }
+
+    /**
+     * 序列化 target 的所有字段
+     */
+    void write(Object target, ClassBindingPlan plan) {
+        for (FieldBinding binding : plan.fields()) {
+            int mark = path.length();
+            if (mark > 0) {
+                path.append('.');
+            }
+            path.append(binding.paramName);
+
+            if (binding.accessor.primitive) {
+                beginPair();
+                binding.accessor.writePrimitiveTo(target, this);
+            } else if (binding.accessor.isValueType()) {
+                Object value = binding.accessor.get(target);
+                if (isWritable(value)) {
+                    beginPair();
+                    putValue(value);
+                }
+            } else {
+                Object fieldValObj = binding.accessor.get(target);
+                if (fieldValObj != null) {
+                    if (binding.array) {
+                        writeArray(fieldValObj);
+                    } else if (binding.list) {
+                        writeList((List) fieldValObj, binding);
+                    } else {
+                        write(fieldValObj, binding.nestedPlan());
+                    }
+                }
+            }
+            path.setLength(mark);
+        }
+    }
+
+    private void writeList(List list, FieldBinding binding) {
+        int mark = path.length();
+        ClassBindingPlan elementPlan = null;
+        for (int i = 0; i < list.size(); i++) {
+            Object element = list.get(i);
+            if (element == null) {
+                continue;
+            }
+            path.append('.').append(i + 1);
+            if (isValue(element)) {
+                if (isWritable(element)) {
+                    beginPair();
+                    putValue(element);
+                }
+            } else if (binding.elementClass != null) {
+                if (elementPlan == null) {
+                    elementPlan = binding.elementPlan();
+                }
+                write(element, elementPlan);
+            }
+            path.setLength(mark);
+        }
+    }
+
+    private void writeArray(Object arr) {
+        int mark = path.length();
+        int length = Array.getLength(arr);
+        for (int i = 0; i < length; i++) {
+            path.append('.').append(i + 1);
+            beginPair();
+            if (arr instanceof int[]) {
+                putLong(((int[]) arr)[i]);
+            } else if (arr instanceof long[]) {
+                putLong(((long[]) arr)[i]);
+            } else {
+                putDouble(((double[]) arr)[i]);
+            }
+            path.setLength(mark);
+        }
+    }
+
+    /**
+     * 写出 "&" 分割符（第一个键值对除外）、当前路径以及 "="
+     */
+    private void beginPair() {
+        if (!first) {
+            put('&');
+        }
+        first = false;
+        for (int i = 0; i < path.length(); i++) {
+            put(path.charAt(i));
+        }
+        put('=');
+    }
+
+    /**
+     * 写出引用类型的值（包装类型、String、BigDecimal 等），调用前需要通过 isWritable 判断
+     */
+    private void putValue(Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            putLong(((Number) value).longValue());
+        } else if (value instanceof Double) {
+            putDouble((Double) value);
+        } else if (value instanceof Float) {
+            putFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            putBoolean((Boolean) value);
+        } else if (value instanceof Character) {
+            putChar((Character) value);
+        } else if (value instanceof Enum) {
+            putEncoded(((Enum<?>) value).name());
+        } else {
+            putEncoded(value.toString());
+        }
+    }
+
+    void putLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            putEncoded("-9223372036854775808");
+            return;
+        }
+        if (value < 0) {
+            put('-');
+            value = -value;
+        }
+        long div = 1;
+        while (value / div >= 10) {
+            div *= 10;
+        }
+        for (; div > 0; div /= 10) {
+            put((char) ('0' + (value / div) % 10));
+        }
+    }
+
+    void putDouble(double value) {
+        putEncoded(Double.toString(value));
+    }
+
+    void putFloat(float value) {
+        putEncoded(Float.toString(value));
+    }
+
+    void putBoolean(boolean value) {
+        putEncoded(value ? "true" : "false");
+    }
+
+    void putChar(char value) {
+        encode(value, 0);
+    }
+
+    private void putEncoded(CharSequence str) {
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < str.length() && Character.isLowSurrogate(str.charAt(i + 1))) {
+                encode(c, str.charAt(++i));
+            } else {
+                encode(c, 0);
+            }
+        }
+    }
+
+    /**
+     * 编码单个字符，low 不为 0 时 c 与 low 组成代理对
+     */
+    private void encode(char c, int low) {
+        if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '_' || c == '.' || c == '*') {
+            put(c);
+            return;
+        }
+        if (c == ' ') {
+            put('+');
+            return;
+        }
+        int cp = low == 0 ? c : Character.toCodePoint(c, (char) low);
+        if (cp < 0x80) {
+            putHex(cp);
+        } else if (cp < 0x800) {
+            putHex(0xC0 | (cp >> 6));
+            putHex(0x80 | (cp & 0x3F));
+        } else if (cp < 0x10000) {
+            putHex(0xE0 | (cp >> 12));
+            putHex(0x80 | ((cp >> 6) & 0x3F));
+            putHex(0x80 | (cp & 0x3F));
+        } else {
+            putHex(0xF0 | (cp >> 18));
+            putHex(0x80 | ((cp >> 12) & 0x3F));
+            putHex(0x80 | ((cp >> 6) & 0x3F));
+            putHex(0x80 | (cp & 0x3F));
+        }
+    }
+
+    private void putHex(int b) {
+        put('%');
+        put(HEX[(b >> 4) & 0xF]);
+        put(HEX[b & 0xF]);
+    }
+
+    /**
+     * 输出经过编码后只包含 ASCII 字符，写入 ByteBuffer 时一个字符对应一个字节
+     */
+    private void put(char c) {
+        if (chars != null) {
+            chars.append(c);
+        } else {
+            bytes.put((byte) c);
+        }
+    }
+
+    /**
+     * null 与空字符串在解析时会被丢弃，不输出
+     */
+    private static boolean isWritable(Object value) {
+        return value != null && !(value instanceof CharSequence && ((CharSequence) value).length() == 0);
+    }
+
+    private static boolean isValue(Object element) {
+        return element instanceof Number || element instanceof CharSequence
+                || element instanceof Boolean || element instanceof Character || element instanceof Enum;
+    }
+}
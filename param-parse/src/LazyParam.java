@@ -0,0 +1,124 @@
+import java.lang.reflect.Array;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ParamParseUtil.parseLazy 的返回值，保留查询字符串构建的路径树：
+ *   1. 创建时只绑定顶层的简单字段，比如 Cpu=2、Memory=4.0；
+ *   2. 嵌套对象与 List 在第一次通过 get 访问对应路径时才实例化并绑定，之后直接读取；
+ *   3. bindAll 绑定剩余的全部字段，结果与 ParamParseUtil.parse 相同。
+ *
+ * 不是线程安全的，只应在解析它的线程中使用。
+ */
+public final class LazyParam<T> {
+    private final T value;
+    private final ClassBindingPlan plan;
+    private final ParamTrie.Node root;
+    private final String source;
+    private final ParseContext ctx;
+    // 已经绑定过的顶层参数名
+    private final Set<String> bound = new HashSet<>();
+
+    LazyParam(T value, ClassBindingPlan plan, ParamTrie.Node root, String source, ParseContext ctx) {
+        this.value = value;
+        this.plan = plan;
+        this.root = root;
+        this.source = source;
+        this.ctx = ctx;
+
+        for (Map.Entry<String, ParamTrie.Node> entry : root.children().entrySet()) {
+            ParamTrie.Node child = entry.getValue();
+            if (child.hasChildren()) {
+                continue; // 嵌套对象与 List 延迟绑定
+            }
+            FieldBinding binding = ParamParseUtil.getFieldBinding(plan, entry.getKey(), ctx);
+            if (binding != null) {
+                ParamParseUtil.handleBasicField(value, binding, source, child.valueStart, child.valueEnd, ctx);
+            }
+            bound.add(entry.getKey());
+        }
+    }
+
+    /**
+     * 目标对象，尚未访问过的嵌套对象与 List 字段保持默认值
+     */
+    public T value() {
+        return value;
+    }
+
+    /**
+     * 读取路径对应的值，比如 Metadata.Name、Container.2.Port，路径所在的顶层字段第一次访问时绑定；
+     * 路径上的对象不存在、下标越界时返回 null
+     * @throws IllegalArgumentException 路径格式不合法，或者字段不存在
+     */
+    public Object get(String path) {
+        ParamProjection.of(path); // 校验路径格式
+        int dot = path.indexOf('.');
+        String name = dot < 0 ? path : path.substring(0, dot);
+        FieldBinding binding = plan.field(name);
+        if (binding == null) {
+            throw new IllegalArgumentException(plan.type() + " has not field named: " + name);
+        }
+        bind(name, binding);
+
+        Object current = binding.accessor.get(value);
+        int segStart = dot + 1;
+        while (dot >= 0 && current != null) {
+            dot = path.indexOf('.', segStart);
+            int segEnd = dot < 0 ? path.length() : dot;
+            current = step(current, path, segStart, segEnd);
+            segStart = segEnd + 1;
+        }
+        return current;
+    }
+
+    /**
+     * 绑定全部尚未绑定的字段，返回目标对象
+     */
+    public T bindAll() {
+        for (Map.Entry<String, ParamTrie.Node> entry : root.children().entrySet()) {
+            if (!bound.contains(entry.getKey())) {
+                bind(entry.getKey(), ParamParseUtil.getFieldBinding(plan, entry.getKey(), ctx));
+            }
+        }
+        return value;
+    }
+
+    private void bind(String name, FieldBinding binding) {
+        if (!bound.add(name) || binding == null) {
+            return;
+        }
+        ParamTrie.Node node = root.children().get(name);
+        if (node == null) {
+            return;
+        }
+        try {
+            ParamParseUtil.bindNode(value, binding, node, source, ctx);
+        } catch (IllegalAccessException | InstantiationException e) {
+            ctx.error(plan.type(), e);
+        }
+    }
+
+    /**
+     * 从 current 沿着 [segStart, segEnd) 的一段路径前进一步
+     */
+    private static Object step(Object current, String path, int segStart, int segEnd) {
+        if (current instanceof List || current.getClass().isArray()) {
+            int slot = FieldBinding.slotOf(path, segStart, segEnd);
+            int length = current instanceof List ? ((List) current).size() : Array.getLength(current);
+            if (slot < 0 || slot >= length) {
+                return null;
+            }
+            return current instanceof List ? ((List) current).get(slot) : Array.get(current, slot);
+        }
+        ClassBindingPlan currentPlan = ClassBindingPlan.of(current.getClass());
+        FieldBinding binding = currentPlan.field(path, segStart, segEnd);
+        if (binding == null) {
+            throw new IllegalArgumentException(currentPlan.type() + " has not field named: "
+                    + path.substring(segStart, segEnd));
+        }
+        return binding.accessor.get(current);
+    }
+}
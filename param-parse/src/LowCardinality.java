@@ -0,0 +1,14 @@
+import java.lang.annotation.*;
+
+/**
+ * 取值种类很少的 String 字段，比如 ImagePullPolicy、ApiVersion，解析时通过有界的缓存复用同一个 String 实例，
+ * 长期驻留在堆中的对象不再各自持有一份相同的副本；注解在 List<String> 字段上时作用于每个元素。
+ *
+ * 缓存按字段独立，最多保存 maxSize 个值，超出时新值覆盖冲突位置上的旧值，不会无限增长。
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface LowCardinality {
+    int maxSize() default 256;
+}
@@ -1,272 +1,453 @@
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.lang.reflect.ParameterizedType;
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 public class ParamParseUtil {
-    // "变量名"正则
-    private final static String VAR_NAME_REG      = "^[a-zA-Z_$][a-zA-Z\\d_$]*$";
-    // "${变量名}.{数字}" 正则
-    private final static String VAR_POINT_NUM_REG = "^[a-zA-Z_$][a-zA-Z\\d_$]*\\.[0-9]+$";
-    // "${变量名}.{变量名}" 正则
-    private final static String VAR_POINT_VAR_REG = "^[a-zA-Z_$][a-zA-Z\\d_$]*\\.[a-zA-Z_$][a-zA-Z\\d_$]*$";
+    // parseAll 每个工作线程复用的路径树构建器
+    private static final ThreadLocal<ParamTrie.Builder> SCRATCH = ThreadLocal.withInitial(ParamTrie.Builder::new);
+    // 全局的解析监听器，默认不做任何处理
+    private static volatile ParseListener listener = ParseListener.NONE;
 
+    /**
+     * 注册解析监听器，未知参数、转换失败等问题不再输出到控制台，而是交给监听器处理；传入 null 时取消注册
+     */
+    public static void setListener(ParseListener parseListener) {
+        listener = parseListener == null ? ParseListener.NONE : parseListener;
+    }
+
+    public static ParseListener getListener() {
+        return listener;
+    }
 
     // Pod.class
     // Person.class return Person
+    // 被 QueryParsable 注解的类优先使用编译期生成的解析器，
+    // 生成的解析器不报告未知参数、转换失败等问题，监听器只收到 onParsedGenerated；需要这些问题时使用 parseWithResult
     public static <T> T parse(Class<T> clz, String queryString) throws Exception {
         if (queryString == null || queryString.length() == 0) return null;
 
-        T t = clz.newInstance();
-        List<String[]> data = splitString(queryString);
-        data.sort(Comparator.comparing(a -> a[0]));
-        mainWorkStream(t, clz, data);
+        ClassBindingPlan plan = ClassBindingPlan.of(clz);
+        ParseContext ctx = ParseContext.of(clz, listener, false);
+        long start = ctx.start();
+        if (plan.hasGeneratedParser()) {
+            T t = clz.cast(plan.parseGenerated(queryString));
+            ctx.parsedGenerated(start);
+            return t;
+        }
+        plan.reportMissingParser(ctx);
+        T t = clz.cast(plan.newInstance());
+        mainWorkStream(t, plan, ParamTrie.build(queryString), queryString, ctx);
+        ctx.parsed(start);
         return t;
     }
 
     /**
-     * 拆分整个字符串：
-     *   1. 以 ”&“ 为分割符，获取键值对；
-     *   2. 过滤掉首字母小写的参数；
-     *   3. 对键值对进行分割；
-     *   4. 过滤掉非键值对的数据；
-     *   5. 转换成 List::String[] {key, value} 的形式
+     * 只解析被选中的字段，比如 parse(Pod.class, query, "Cpu", "Metadata.Name")，
+     * 其余 key 在构建路径树时就被跳过，对应的嵌套对象、List 不会被创建，规则见 ParamProjection
      */
-    public static List<String[]> splitString(String content) {
-        String[] tokens = content.split("&");
-        return Arrays.stream(tokens)
-                .filter(token -> token.length() > 0 && Character.isUpperCase(token.charAt(0)))  // 过滤首字母小写的参数
-                .map(token -> token.split("="))
-                .filter(temp -> temp.length == 2)
-                .collect(Collectors.toList());
+    public static <T> T parse(Class<T> clz, String queryString, String... paths) throws Exception {
+        return parse(clz, queryString, ParamProjection.of(paths));
     }
 
-
     /**
-     * 主要工作流，类似于责任链的设计模式，每个步骤从全局数据中选择数据进行处理，然后从全局数据中删除，
-     * 流程大致分为四个步骤：
-     * 1. 处理基本类型：比如 Cpu=val
-     * 2. 处理泛型类型为基本类型的List, 比如 Command.1=/bin/bash
-     * 3. 处理复合数据类型：比如 Metadata.Generation=1; 当然更复杂的情况递归调用 `mainWorkStream` 即可
-     * 4. 处理复合数据类型的 list 参数，比如 Container.5.Environment.1.Key=PORT; 复杂情况递归调用即可
-     *
+     * 只解析被 projection 选中的字段，projection 可以作为常量复用；总是使用反射实现
      */
-    private static void mainWorkStream(Object target, Class mainClz, List<String[]> data) {
-
-        try {
-            handleBasicField(target, mainClz, data);            // P
-            handleBasicListField(target, mainClz, data);        // P.[num]
-            handleVarAndVarFormatField(target, mainClz, data);  // P.P.xxx
-            handleVarAndNumFormatField(target, mainClz, data);  // P.[num].xxx
-        } catch (IllegalAccessException | InstantiationException | NoSuchFieldException | ClassNotFoundException e) {
-            e.printStackTrace();
-            System.out.println("[ERROR] => error occur when parsing!" + e.getMessage());
-        }
+    public static <T> T parse(Class<T> clz, String queryString, ParamProjection projection) throws Exception {
+        if (queryString == null || queryString.length() == 0) return null;
 
+        ClassBindingPlan plan = ClassBindingPlan.of(clz);
+        ParseContext ctx = ParseContext.of(clz, listener, false);
+        long start = ctx.start();
+        T t = clz.cast(plan.newInstance());
+        mainWorkStream(t, plan, ParamTrie.build(queryString, projection), queryString, ctx);
+        ctx.parsed(start);
+        return t;
     }
 
     /**
-     * 处理基本的数据类型，比如 name="cheng", 直接获取 field 并设置值即可
-     * @param target: 当前类的实例化对象
-     * @param mainClz: 当前类的 Class 对象
-     * @param data: 全局数据流
+     * 延迟绑定：只立即绑定顶层的简单字段，嵌套对象与 List 保留在路径树上，
+     * 第一次通过 LazyParam.get 访问时才实例化并绑定，适合只读取少量字段的场景
      */
-    private static void handleBasicField(Object target, Class mainClz, List<String[]> data) {
-        // 处理基本数据类型
-        List<String[]> basicVarData = data.stream()
-                .filter(temp -> temp[0].matches(VAR_NAME_REG)
-                        && Character.isUpperCase(temp[0].charAt(0)))
-                .collect(Collectors.toList());
+    public static <T> LazyParam<T> parseLazy(Class<T> clz, String queryString) throws Exception {
+        if (queryString == null || queryString.length() == 0) return null;
 
-        for (String[] kv : basicVarData) {
-            Field field = getDeclaredFieldByName(mainClz, lowerCaseFirstChar(kv[0]));
-            if (field != null && checkFieldAccessible(field)) {
-
-                Object fieldValObj = getFieldValByType(field.getType(), kv[1]);
-                if (fieldValObj != null) {
-                    try {
-                        field.set(target, fieldValObj);
-                    } catch (IllegalAccessException e) {
-                        e.printStackTrace();
-                    }
-                }
+        ClassBindingPlan plan = ClassBindingPlan.of(clz);
+        ParseContext ctx = ParseContext.of(clz, listener, false);
+        long start = ctx.start();
+        T t = clz.cast(plan.newInstance());
+        LazyParam<T> lazy = new LazyParam<>(t, plan, ParamTrie.build(queryString), queryString, ctx);
+        ctx.parsed(start);
+        return lazy;
+    }
 
+    /**
+     * 解析查询字符串，同时收集本次解析中出现的所有问题（未知参数、转换失败等），规则同 parse(Class, String)；
+     * 为了记录每个问题，始终使用反射实现，不使用生成的解析器
+     */
+    public static <T> ParseResult<T> parseWithResult(Class<T> clz, String queryString) throws Exception {
+        if (queryString == null || queryString.length() == 0) return new ParseResult<>(null, null);
+
+        ClassBindingPlan plan = ClassBindingPlan.of(clz);
+        ParseContext ctx = ParseContext.of(clz, listener, true);
+        long start = ctx.start();
+        T t = clz.cast(plan.newInstance());
+        mainWorkStream(t, plan, ParamTrie.build(queryString), queryString, ctx);
+        ctx.parsed(start);
+        return new ParseResult<>(t, ctx.errors());
+    }
+
+    /**
+     * 将增量查询字符串应用到已有的对象上，比如 apply(pod, "Container.5.Port=9000")：
+     *   1. 只访问 key 指向的路径，不重新创建目标对象，耗时只与 delta 的长度相关；
+     *   2. 路径上的嵌套对象、List 元素不存在时才实例化，已有元素按下标就地修改；
+     *   3. 过滤规则与 parse(Class, String) 相同，值没有经过 percent-encoding。
+     * @return 值发生变化的 key，按第一次变化的顺序排列
+     */
+    public static Set<String> apply(Object existing, String delta) {
+        if (existing == null) {
+            throw new IllegalArgumentException("can not apply delta to null");
+        }
+        Set<String> changes = new LinkedHashSet<>();
+        if (delta == null || delta.length() == 0) return changes;
+
+        ClassBindingPlan plan = ClassBindingPlan.of(existing.getClass());
+        ParseContext ctx = ParseContext.of(existing.getClass(), listener, false);
+        long start = ctx.start();
+        PathBinder binder = new PathBinder(existing, plan, ctx, changes);
+        int len = delta.length();
+        int pairStart = 0;
+        while (pairStart < len) {
+            int pairEnd = delta.indexOf('&', pairStart);
+            if (pairEnd < 0) {
+                pairEnd = len;
+            }
+            int eq = delta.indexOf('=', pairStart);
+            if (eq > pairStart && eq < pairEnd && delta.lastIndexOf('=', pairEnd - 1) == eq) {
+                binder.bind(delta, pairStart, eq, eq + 1, pairEnd); // 与 ParamTrie 一样只接受单个 "="
             }
+            pairStart = pairEnd + 1;
         }
-        data.removeAll(basicVarData); // 删除处理过的元素
+        binder.finish();
+        ctx.parsed(start);
+        return changes;
     }
 
-
     /**
-     * 处理泛型参数是基本数据类型的 List 成员变量
+     * 将对象序列化为查询字符串，与 parse 的格式相同，比如 Container.5.Environment.1.Key=PORT：
+     *   1. 复用与 parse 相同的 ClassBindingPlan，被 SkipMappingValueAnnotation 注解的字段不输出；
+     *   2. 值经过 form-encoded 编码，结果可以通过 parseEncoded 还原。
      */
-    private static void handleBasicListField(Object target, Class mainClz, List<String[]> data)
-            throws IllegalAccessException, InstantiationException {
-        List<String[]> basicListData = data.stream()
-                .filter(temp -> temp[0].matches(VAR_POINT_NUM_REG)
-                        && Character.isUpperCase(temp[0].charAt(0)))
-                .collect(Collectors.toList());
-
-        for (String[] kv : basicListData) {
-            String fieldName = kv[0].substring(0, kv[0].indexOf("."));
-            Field listField = getDeclaredFieldByName(mainClz, lowerCaseFirstChar(fieldName));
+    public static String format(Object source) {
+        if (source == null) return null;
+        return format(source, new StringBuilder(256)).toString();
+    }
 
-            if (listField == null || !checkFieldAccessible(listField)
-                    || listField.getType() != List.class
-                    || !(listField.getGenericType() instanceof ParameterizedType)) {
-                return;
-            }
-            // 获取 List 类型的 Field 的实例
-            List listFieldVal = (List)listField.get(target);
-            if (listFieldVal == null) {
-                List tempList = ArrayList.class.newInstance();
-                listField.set(target, tempList);
-                listFieldVal = tempList;
-            }
+    /**
+     * 将对象序列化后追加到 out 中，out 可以在多次调用之间复用
+     */
+    public static StringBuilder format(Object source, StringBuilder out) {
+        if (source != null) {
+            new FormParamWriter(out).write(source, ClassBindingPlan.of(source.getClass()));
+        }
+        return out;
+    }
 
-            // 将数据添加到 list 中
-            ParameterizedType parameterizedType = (ParameterizedType) (listField.getGenericType());
-            Type argumentType = parameterizedType.getActualTypeArguments()[0];
-            listFieldVal.add(getFieldValByType(argumentType, kv[1]));
+    /**
+     * 将对象序列化后写入 out（编码后只包含 ASCII 字符），空间不足时抛出 BufferOverflowException
+     */
+    public static ByteBuffer format(Object source, ByteBuffer out) {
+        if (source != null) {
+            new FormParamWriter(out).write(source, ClassBindingPlan.of(source.getClass()));
         }
-        data.removeAll(basicListData);
+        return out;
     }
 
+    /**
+     * 批量解析，结果与输入顺序一致：
+     *   1. 所有查询字符串共享同一个 ClassBindingPlan；
+     *   2. 输入通过并行流拆分到 ForkJoinPool 上执行（在自定义 ForkJoinPool 中调用时使用该 pool）；
+     *   3. 每个工作线程复用自己的路径树构建器，避免每次解析重新分配节点。
+     * 空字符串对应的结果为 null。
+     */
+    public static <T> List<T> parseAll(Class<T> clz, Iterable<String> queryStrings) {
+        return parseAll(clz, StreamSupport.stream(queryStrings.spliterator(), true));
+    }
 
     /**
-     * 处理以 ${变量名}.${变量名} 开头的形式
+     * 批量解析，规则同 parseAll(Class, Iterable)
      */
-    private static void handleVarAndVarFormatField(Object target, Class mainClz, List<String[]> data)
-            throws NoSuchFieldException, IllegalAccessException,
-            InstantiationException, ClassNotFoundException {
-        // 从全局数据中筛选符合以 ${变量名}.${变量名} 开头的数据
-        List<String[]> varAndVarData = data.stream()
-                .filter(temp -> temp[0].split("\\.").length > 1)
-                .filter(temp -> isPrefixMatchTarget(temp[0], VAR_POINT_VAR_REG))
+    public static <T> List<T> parseAll(Class<T> clz, Stream<String> queryStrings) {
+        ClassBindingPlan plan = ClassBindingPlan.of(clz);
+        return queryStrings.parallel()
+                .map(queryString -> parseWithScratch(clz, plan, queryString))
                 .collect(Collectors.toList());
+    }
 
-        for (String[] kv : varAndVarData) {
-            String fieldName = lowerCaseFirstChar(kv[0].substring(0, kv[0].indexOf(".")));
-            Field field = getDeclaredFieldByName(mainClz, fieldName);
+    /**
+     * 批量解析，每个结果解析完成后立即交给 consumer，不保证顺序，也不保存全部结果；
+     * consumer 会被多个工作线程同时调用，需要自行保证线程安全
+     */
+    public static <T> void parseAll(Class<T> clz, Spliterator<String> queryStrings, Consumer<? super T> consumer) {
+        ClassBindingPlan plan = ClassBindingPlan.of(clz);
+        StreamSupport.stream(queryStrings, true)
+                .map(queryString -> parseWithScratch(clz, plan, queryString))
+                .forEach(consumer);
+    }
 
-            if (field == null || !checkFieldAccessible(field)) {
-                continue;
-            }
-            // 截取新的数据
-            String newKey = kv[0].substring(kv[0].indexOf(".") + 1);
-            List<String[]> list = Arrays.stream(new String[][]{new String[] {newKey, kv[1]}})
-                    .collect(Collectors.toList());
-
-            // 获取 Field 实例化内容，没有则通过 Class 实例化并保存
-            Object fieldValObj = field.get(target);
-            if (fieldValObj == null) {
-                Object obj = field.getType().newInstance();
-                field.set(target, obj);
-                fieldValObj = obj;
+    private static <T> T parseWithScratch(Class<T> clz, ClassBindingPlan plan, String queryString) {
+        if (queryString == null || queryString.length() == 0) return null;
+        ParseContext ctx = ParseContext.of(clz, listener, false);
+        long start = ctx.start();
+        try {
+            if (plan.hasGeneratedParser()) {
+                T t = clz.cast(plan.parseGenerated(queryString));
+                ctx.parsedGenerated(start);
+                return t;
             }
-            mainWorkStream(fieldValObj, field.getType(), list);
+            plan.reportMissingParser(ctx);
+            T t = clz.cast(plan.newInstance());
+            mainWorkStream(t, plan, SCRATCH.get().build(queryString), queryString, ctx);
+            ctx.parsed(start);
+            return t;
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalStateException("can not instantiate " + clz.getName(), e);
         }
+    }
 
-        // 删除处理过的数据
-        data.removeAll(varAndVarData);
+    /**
+     * 流式解析 form-encoded 的请求体，从 buffer 当前位置读到 limit：
+     *   1. 就地解码 "%XX"、"+" 以及 UTF-8，不需要先把整个请求体转换成 String；
+     *   2. 每读完一个键值对就立即绑定，内存中最多只保存一个键值对。
+     */
+    public static <T> T parse(Class<T> clz, ByteBuffer body) throws Exception {
+        if (body == null || !body.hasRemaining()) return null;
+
+        ClassBindingPlan plan = ClassBindingPlan.of(clz);
+        ParseContext ctx = ParseContext.of(clz, listener, false);
+        long start = ctx.start();
+        T t = clz.cast(plan.newInstance());
+        PathBinder binder = new PathBinder(t, plan, ctx);
+        FormParamReader reader = new FormParamReader(binder);
+        reader.read(body);
+        reader.finish();
+        binder.finish();
+        ctx.parsed(start);
+        return t;
     }
 
+    /**
+     * 流式解析 form-encoded 的请求体，从 channel 中分块读取直到结束，规则同 parse(Class, ByteBuffer)
+     */
+    public static <T> T parse(Class<T> clz, ReadableByteChannel channel) throws Exception {
+        if (channel == null) return null;
+
+        ClassBindingPlan plan = ClassBindingPlan.of(clz);
+        ParseContext ctx = ParseContext.of(clz, listener, false);
+        long start = ctx.start();
+        T t = clz.cast(plan.newInstance());
+        PathBinder binder = new PathBinder(t, plan, ctx);
+        FormParamReader reader = new FormParamReader(binder);
+        try {
+            reader.read(channel);
+        } catch (IOException e) {
+            ctx.error(clz, e);
+            throw e;
+        }
+        reader.finish();
+        binder.finish();
+        ctx.parsed(start);
+        return t;
+    }
 
     /**
-     * 处理以 ${变量名}.${整型下标} 的形式
+     * 解析经过 percent-encoding 的查询字符串，比如 Container.2.Command.3=sleep%2020，规则同 parse(Class, ByteBuffer)；
+     * 未编码的查询字符串请使用 parse(Class, String)
      */
-    private static void handleVarAndNumFormatField(Object target, Class mainClz, List<String[]> data)
-            throws NoSuchFieldException, IllegalAccessException, InstantiationException, ClassNotFoundException {
-        // 获得 变量名.数字 开头的形式的内容
-        List<String[]> tempList = data.stream()
-                .filter(temp -> temp[0].split("\\.").length > 2)
-                .filter(temp -> isPrefixMatchTarget(temp[0], VAR_POINT_NUM_REG))
-                .collect(Collectors.toList());
+    public static <T> T parseEncoded(Class<T> clz, CharSequence queryString) throws Exception {
+        if (queryString == null || queryString.length() == 0) return null;
 
-        // 首先对变量名进行分组
-        Map<String, List<String[]>> groupByNameMap = tempList.stream()
-                .collect(Collectors.groupingBy(temp -> temp[0].substring(0, temp[0].indexOf("."))));
+        ClassBindingPlan plan = ClassBindingPlan.of(clz);
+        ParseContext ctx = ParseContext.of(clz, listener, false);
+        long start = ctx.start();
+        T t = clz.cast(plan.newInstance());
+        PathBinder binder = new PathBinder(t, plan, ctx);
+        FormParamReader reader = new FormParamReader(binder);
+        reader.read(queryString);
+        reader.finish();
+        binder.finish();
+        ctx.parsed(start);
+        return t;
+    }
 
-        for (String name : groupByNameMap.keySet()) {
-            List<String[]> sameNameList = groupByNameMap.get(name);
-            Field field = getDeclaredFieldByName(mainClz, lowerCaseFirstChar(name));
+    /**
+     * 拆分整个字符串：
+     *   1. 以 ”&“ 为分割符，获取键值对；
+     *   2. 过滤掉首字母小写的参数；
+     *   3. 对键值对进行分割；
+     *   4. 过滤掉非键值对的数据；
+     *   5. 转换成 List::String[] {key, value} 的形式
+     */
+    public static List<String[]> splitString(String content) {
+        String[] tokens = content.split("&");
+        return Arrays.stream(tokens)
+                .filter(token -> token.length() > 0 && Character.isUpperCase(token.charAt(0)))  // 过滤首字母小写的参数
+                .map(token -> token.split("="))
+                .filter(temp -> temp.length == 2)
+                .collect(Collectors.toList());
+    }
 
-            if (field == null || !checkFieldAccessible(field) || field.getType() != List.class ||
-                    !(field.getGenericType() instanceof ParameterizedType)) {
-                continue;
-            }
 
-            // 获取 List 类型的 Field 的实例, 空的话初始化为 ArrayList 形式
-            List listFieldVal = (List) field.get(target);
-            if (listFieldVal == null) {
-                List temp = ArrayList.class.newInstance();
-                field.set(target, temp);
-                listFieldVal = temp;
-            }
+    /**
+     * 主要工作流，对查询字符串构建的路径树进行一次深度优先遍历，每个节点按照字段类型绑定：
+     * 1. 处理基本类型：比如 Cpu=val，节点上直接带有值；
+     * 2. 处理泛型类型为基本类型的List, 比如 Command.1=/bin/bash，子节点为下标，下标节点带有值；
+     * 3. 处理复合数据类型：比如 Metadata.Generation=1，子节点递归调用 `mainWorkStream` 即可；
+     * 4. 处理复合数据类型的 list 参数，比如 Container.5.Environment.1.Key=PORT，每个下标节点实例化一个元素后递归调用
+     *
+     * 各步骤共享当前类的 ClassBindingPlan，字段查找、注解判断、泛型解析只在构建计划时执行一次；
+     * 出现的问题交给 ctx 处理，不输出到控制台。
+     */
+    private static void mainWorkStream(Object target, ClassBindingPlan plan, ParamTrie.Node node, String source,
+                                       ParseContext ctx) {
 
-            // 根据下标进行分组，对应列表中的不同实例
-            Map<String, List<String[]>> groupByIndexMap = sameNameList.stream()
-                    .collect(Collectors.groupingBy(temp -> {
-                        int i = temp[0].indexOf(".");
-                        int j = temp[0].indexOf(".", i + 1);
-                        return temp[0].substring(i + 1, j);
-                    }));
-
-            for (String index : groupByIndexMap.keySet()) {
-
-                Type genericType = field.getGenericType();
-                if (genericType instanceof ParameterizedType) {
-                    // 将数据添加到 list 中
-                    ParameterizedType parameterizedType = (ParameterizedType) genericType;
-                    Type argumentType = parameterizedType.getActualTypeArguments()[0];
-                    // 通过 list 的泛型参数类型 (argumentType) 实例化
-                    Class typeCls =  Class.forName(argumentType.getTypeName());
-                    Object typeValObj = typeCls.newInstance();
-                    listFieldVal.add(typeValObj);
-
-                    // 删掉 ${变量名}.${整型下标} 开头后，生成新的键值对
-                    List<String[]> sameIndexList = groupByIndexMap.get(index);
-                    sameIndexList = sameIndexList.stream()
-                            .map(temp -> new String[]
-                                    { temp[0].substring(name.length() + index.length() + 2), temp[1]})
-                            .collect(Collectors.toList());
-                    mainWorkStream(typeValObj, typeCls, sameIndexList);
+        try {
+            for (Map.Entry<String, ParamTrie.Node> entry : node.children().entrySet()) {
+                FieldBinding binding = getFieldBinding(plan, entry.getKey(), ctx);
+                if (binding != null) {
+                    bindNode(target, binding, entry.getValue(), source, ctx);
                 }
             }
+        } catch (IllegalAccessException | InstantiationException e) {
+            ctx.error(plan.type(), e);
         }
-        data.removeAll(tempList);
+
     }
 
+    /**
+     * 将路径树上的单个节点绑定到 binding 对应的字段，LazyParam 按需绑定时也通过这里完成
+     */
+    static void bindNode(Object target, FieldBinding binding, ParamTrie.Node child, String source, ParseContext ctx)
+            throws IllegalAccessException, InstantiationException {
+        if (child.hasValue()) {
+            handleBasicField(target, binding, source, child.valueStart, child.valueEnd, ctx); // P
+        }
+        if (!child.hasChildren()) {
+            return;
+        }
+        if (binding.indexed()) {
+            handleListField(target, binding, child, source, ctx);           // P.[num] / P.[num].xxx
+        } else {
+            handleVarAndVarFormatField(target, binding, child, source, ctx); // P.P.xxx
+        }
+    }
 
     /**
-     * 工具方法，判断输入字符串起始格式是否满足输入的正则要求
+     * 处理基本的数据类型，比如 name="cheng", 通过 FieldAccessor 直接从值区间转换并赋值
+     * @param target: 当前类的实例化对象
+     * @param binding: 字段的绑定信息
+     * @param source: 值所在的字符序列
+     * @param start: 值的起始下标
+     * @param end: 值的结束下标（不包含）
+     * @param ctx: 本次解析的上下文，类型不匹配或转换失败时通知
      */
-    private static boolean isPrefixMatchTarget(String input, String reg) {
-        int i = input.indexOf(".");
-        int j = input.indexOf(".", i + 1);
-        return input.substring(0, j == -1 ? input.length() : j).matches(reg);
+    static void handleBasicField(Object target, FieldBinding binding, CharSequence source, int start, int end,
+                                 ParseContext ctx) {
+        if (!binding.accessor.isValueType()) {
+            ctx.unsupportedType(binding, source, start, end);
+            return;
+        }
+        if (!binding.accessor.set(target, source, start, end)) {
+            ctx.conversionFailure(binding, source, start, end);
+        }
     }
 
+
     /**
-     * 完成 Field 权限验证功能：
-     *   1. 判断 Field 是否被 SkipMappingValueAnnotation 注解；
-     *   2. 判断 Field 的访问限制并设置为 可访问；
+     * 处理 List / 基本类型数组成员变量，子节点均为下标，下标从 1 开始：
+     *   1. 先遍历一次子节点得到最大下标，List / 数组只按最大下标分配一次，超过 FieldBinding.MAX_INDEX 的下标通知 ctx 后丢弃；
+     *   2. 泛型参数是基本数据类型时，下标节点上的值转换后直接放到对应位置；
+     *   3. 泛型参数是复合数据类型时，对应位置没有元素则实例化，再递归处理下标节点的子节点
      */
-    private static boolean checkFieldAccessible(Field field) {
-        if (field.getDeclaredAnnotation(SkipMappingValueAnnotation.class) != null) {
-            return false;
+    private static void handleListField(Object target, FieldBinding binding, ParamTrie.Node node, String source,
+                                        ParseContext ctx)
+            throws IllegalAccessException, InstantiationException {
+        int size = 0;
+        for (String index : node.children().keySet()) {
+            int slot = FieldBinding.slotOf(index, 0, index.length());
+            if (slot == FieldBinding.SLOT_OUT_OF_RANGE) {
+                ctx.conversionFailure(binding, index, 0, index.length()); // 下标超过 MAX_INDEX，不分配
+            }
+            size = Math.max(size, slot + 1);
+        }
+        if (size == 0) {
+            return; // 不是 ${变量名}.${整型下标} 的形式
+        }
+
+        if (binding.array) {
+            Object arr = binding.arrayOfLength(target, size);
+            for (Map.Entry<String, ParamTrie.Node> entry : node.children().entrySet()) {
+                int slot = FieldBinding.slotOf(entry.getKey(), 0, entry.getKey().length());
+                ParamTrie.Node indexNode = entry.getValue();
+                if (slot < 0 || !indexNode.hasValue()) {
+                    continue;
+                }
+                if (!binding.setArrayElement(arr, slot, source, indexNode.valueStart, indexNode.valueEnd)) {
+                    ctx.conversionFailure(binding, source, indexNode.valueStart, indexNode.valueEnd);
+                }
+            }
+            return;
         }
-        if (!Modifier.isPublic(field.getModifiers())) {
-            field.setAccessible(true);
+
+        List listFieldVal = binding.listOfSize(target, size);
+        for (Map.Entry<String, ParamTrie.Node> entry : node.children().entrySet()) {
+            int slot = FieldBinding.slotOf(entry.getKey(), 0, entry.getKey().length());
+            if (slot < 0) {
+                continue; // 下标不合法或超过 MAX_INDEX，比如 Command.0
+            }
+            ParamTrie.Node indexNode = entry.getValue();
+            if (!indexNode.hasChildren()) {
+                // 将数据放到 list 的对应位置
+                listFieldVal.set(slot, getFieldValByType(binding.elementType,
+                        source.substring(indexNode.valueStart, indexNode.valueEnd), binding, ctx));
+            } else if (binding.elementClass != null) {
+                // 对应位置没有元素时，通过 list 泛型参数类型的绑定计划实例化
+                ClassBindingPlan elementPlan = binding.elementPlan();
+                Object typeValObj = listFieldVal.get(slot);
+                if (typeValObj == null) {
+                    typeValObj = elementPlan.newInstance();
+                    listFieldVal.set(slot, typeValObj);
+                }
+                mainWorkStream(typeValObj, elementPlan, indexNode, source, ctx);
+            }
         }
-        return true;
     }
 
 
+    /**
+     * 处理以 ${变量名}.${变量名} 开头的形式
+     */
+    private static void handleVarAndVarFormatField(Object target, FieldBinding binding, ParamTrie.Node node,
+                                                   String source, ParseContext ctx)
+            throws IllegalAccessException, InstantiationException {
+        // 获取 Field 实例化内容，没有则通过缓存的构造器实例化并保存
+        ClassBindingPlan nestedPlan = binding.nestedPlan();
+        Object fieldValObj = binding.accessor.get(target);
+        if (fieldValObj == null) {
+            Object obj = nestedPlan.newInstance();
+            binding.accessor.setObject(target, obj);
+            fieldValObj = obj;
+        }
+        mainWorkStream(fieldValObj, nestedPlan, node, source, ctx);
+    }
+
     private final static Set<Class> WRAPPER_CLASSES = new HashSet<>(Arrays.asList(new Class[]{
             Byte.class, Boolean.class, Character.class, Short.class, Integer.class,
             Long.class, Float.class, Double.class, String.class, BigDecimal.class
@@ -278,17 +459,26 @@ public class ParamParseUtil {
     }));
 
     /**
-     * 通过指定 Field 参数类型，从字符串中获得Field的值
+     * 通过指定 Field 参数类型，从字符串中获得Field的值，转换失败时通过 ctx 通知 binding 对应的字段并返回 null
      */
-    private static Object getFieldValByType(Type type, String fieldVal) {
+    static Object getFieldValByType(Type type, String fieldVal, FieldBinding binding, ParseContext ctx) {
+        if (type instanceof Class && ((Class<?>) type).isEnum()) {
+            if (fieldVal == null || fieldVal.length() == 0 || "null".equalsIgnoreCase(fieldVal)) {
+                return null;
+            }
+            Enum<?> ans = EnumLookup.of((Class<?>) type).find(fieldVal, 0, fieldVal.length());
+            if (ans == null) {
+                ctx.conversionFailure(binding, fieldVal, 0, fieldVal.length());
+            }
+            return ans;
+        }
         if (WRAPPER_CLASSES.contains(type)) {
             if (fieldVal == null || fieldVal.length() == 0 || "null".equalsIgnoreCase(fieldVal)) {
                 return null;
             }
             if (type == String.class) {
-                return fieldVal;
-            } else if (type == BigDecimal.class) {
-                return new BigDecimal(fieldVal);
+                return binding.accessor.interner != null
+                        ? binding.accessor.interner.intern(fieldVal, 0, fieldVal.length()) : fieldVal;
             }
         } else if (BASIC_CLASSES.contains(type)) {
             if (("null".equalsIgnoreCase(fieldVal)) || fieldVal == null || fieldVal.length() == 0) {
@@ -307,10 +497,14 @@ public class ParamParseUtil {
                 }
             }
         } else {
-            System.out.println("[ERROR] 未知类型 " + type.getTypeName());
+            ctx.unsupportedType(binding, fieldVal, 0, fieldVal.length());
             return null;
         }
 
+        if (!FieldAccessor.isWellFormed(FieldAccessor.kindOf((Class<?>) type), fieldVal, 0, fieldVal.length())) {
+            ctx.conversionFailure(binding, fieldVal, 0, fieldVal.length());
+            return null;
+        }
         Object ans = null;
         try {
             if (type == Boolean.class || type == boolean.class) {
@@ -329,34 +523,28 @@ public class ParamParseUtil {
                 ans = Float.parseFloat(fieldVal);
             } else if (type == Double.class || type == double.class) {
                 ans = Double.parseDouble(fieldVal);
+            } else if (type == BigDecimal.class) {
+                ans = new BigDecimal(fieldVal);
             }
         } catch (NumberFormatException numberFormatException) {
-            System.out.println("字符串 " + fieldVal + " 匹配错误: " + numberFormatException);
+            ctx.conversionFailure(binding, fieldVal, 0, fieldVal.length()); // 格式正确但超出范围
         }
         return ans;
     }
 
     /**
-     * 工具函数：将字符串首字母小写并返回处理化后的整个字符串
+     * 通过参数名从绑定计划中获取 FieldBinding，字段不存在或被 SkipMappingValueAnnotation 注解时通知 ctx 并返回 null
      */
-    private static String lowerCaseFirstChar(String data) {
-        if (data == null || data.contains(".")) return data;
-        char[] chs = data.toCharArray();
-        chs[0] = Character.toLowerCase(chs[0]);
-        return String.valueOf(chs);
-    }
-
-    /**
-     * 通过 field 名字获取 Field，用于捕获全局出现的 NoSuchFieldException
-     */
-    private static Field getDeclaredFieldByName(Class clz, String fieldName) {
-        if (fieldName == null || fieldName.length() == 0) return null;
-        Field field = null;
-        try {
-            field = clz.getDeclaredField(lowerCaseFirstChar(fieldName));
-        } catch (NoSuchFieldException e) {
-            System.out.println("[WARNING] => " + clz + " has not field named: " + fieldName);
+    static FieldBinding getFieldBinding(ClassBindingPlan plan, String paramName, ParseContext ctx) {
+        if (paramName == null || paramName.length() == 0) return null;
+        FieldBinding binding = plan.field(paramName);
+        if (binding == null) {
+            if (plan.isSkipped(paramName)) {
+                ctx.skippedField(paramName, 0, paramName.length());
+            } else {
+                ctx.unknownKey(plan.type(), paramName, 0, paramName.length());
+            }
         }
-        return field;
+        return binding;
     }
 }
@@ -0,0 +1,81 @@
+import java.util.Arrays;
+
+/**
+ * 解析时的字段投影，只绑定被选中的路径，其余 key 在构建路径树时就被跳过：
+ *   1. 路径形如 Cpu、Metadata.Name、Container.2.Name，规则与查询字符串的 key 相同；
+ *   2. key 与某个路径相同，或者以 "路径." 开头时被选中，比如 Metadata 会选中 Metadata.Name 与 Metadata.Generation；
+ *   3. 不可变，可以在多个线程之间共享，建议作为常量复用。
+ */
+public final class ParamProjection {
+    private final String[] paths;
+
+    private ParamProjection(String[] paths) {
+        this.paths = paths;
+    }
+
+    /**
+     * 通过路径创建投影
+     * @throws IllegalArgumentException 路径为空或格式不合法
+     */
+    public static ParamProjection of(String... paths) {
+        if (paths == null || paths.length == 0) {
+            throw new IllegalArgumentException("projection needs at least one path");
+        }
+        String[] copy = paths.clone();
+        for (String path : copy) {
+            if (!isValidPath(path)) {
+                throw new IllegalArgumentException("invalid projection path: " + path);
+            }
+        }
+        return new ParamProjection(copy);
+    }
+
+    /**
+     * [start, end) 区间内的 key 是否被选中
+     */
+    boolean matches(CharSequence src, int start, int end) {
+        int len = end - start;
+        for (String path : paths) {
+            int pathLen = path.length();
+            if (pathLen > len || (pathLen < len && src.charAt(start + pathLen) != '.')) {
+                continue;
+            }
+            if (regionEquals(path, src, start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean regionEquals(String path, CharSequence src, int start) {
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) != src.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isValidPath(String path) {
+        if (path == null || path.isEmpty()) {
+            return false;
+        }
+        boolean first = true;
+        int segStart = 0;
+        while (segStart <= path.length()) {
+            int dot = path.indexOf('.', segStart);
+            int segEnd = dot < 0 ? path.length() : dot;
+            if (!ParamTrie.isValidSegment(path, segStart, segEnd, first)) {
+                return false;
+            }
+            first = false;
+            segStart = segEnd + 1;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "ParamProjection" + Arrays.toString(paths);
+    }
+}
@@ -0,0 +1,217 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 查询字符串的路径树，只扫描一次输入，按 "." 拆分的 key 逐段挂到树上，比如：
+ *   Container.5.Environment.1.Key=PORT  =>  Container -> 5 -> Environment -> 1 -> Key(PORT)
+ *
+ * 过滤规则与 ParamParseUtil.splitString 保持一致：
+ *   1. 以 "&" 为分割符，空参数、首字母非大写的参数直接跳过；
+ *   2. 键值对必须形如 key=value，value 非空且不再包含 "="；
+ *   3. key 的每一段要么是首字母大写的变量名，要么是整型下标，第一段必须是变量名；
+ *   4. 指定 ParamProjection 时，未被选中的 key 在扫描时直接跳过，不创建任何节点；
+ *   5. 同一个 key 出现多次时只保留第一次出现的值（与 PathBinder 以及生成的解析器一致）。
+ */
+final class ParamTrie {
+
+    private ParamTrie() {
+    }
+
+    /**
+     * 路径树节点，[valueStart, valueEnd) 为该路径上的值在查询字符串中的区间，
+     * children 按首次出现的顺序保存下一段路径
+     */
+    static final class Node {
+        int valueStart = -1;
+        int valueEnd = -1;
+        private Map<String, Node> children;
+
+        boolean hasValue() {
+            return valueStart >= 0;
+        }
+
+        private Node child(String segment, Builder builder) {
+            if (children == null) {
+                children = new LinkedHashMap<>();
+            }
+            Node node = children.get(segment);
+            if (node == null) {
+                node = builder.obtain();
+                children.put(segment, node);
+            }
+            return node;
+        }
+
+        private void reset() {
+            valueStart = -1;
+            valueEnd = -1;
+            if (children != null) {
+                children.clear();
+            }
+        }
+
+        boolean hasChildren() {
+            return children != null && !children.isEmpty();
+        }
+
+        Map<String, Node> children() {
+            return children == null ? Collections.emptyMap() : children;
+        }
+    }
+
+    /**
+     * 可复用的路径树构建器，节点以及节点内的 Map 在下一次 build 时回收使用，
+     * 适合同一线程反复解析的场景（比如 parseAll 的每个工作线程各持有一个）。
+     * 上一次 build 返回的树在下一次 build 之后失效。
+     */
+    static final class Builder {
+        private final List<Node> pool = new ArrayList<>();
+        private int used;
+
+        /**
+         * 逐字符扫描整个查询字符串并构建路径树，返回根节点
+         */
+        Node build(String content) {
+            return build(content, null);
+        }
+
+        /**
+         * 同 build(String)，只保留被 projection 选中的 key，projection 为 null 时保留全部
+         */
+        Node build(String content, ParamProjection projection) {
+            used = 0;
+            Node root = obtain();
+            int len = content.length();
+            int start = 0;
+            while (start < len) {
+                int end = content.indexOf('&', start);
+                if (end < 0) {
+                    end = len;
+                }
+                addPair(root, content, start, end, projection, this);
+                start = end + 1;
+            }
+            return root;
+        }
+
+        private Node obtain() {
+            Node node;
+            if (used < pool.size()) {
+                node = pool.get(used);
+                node.reset();
+            } else {
+                node = new Node();
+                pool.add(node);
+            }
+            used++;
+            return node;
+        }
+    }
+
+    /**
+     * 逐字符扫描整个查询字符串并构建路径树，返回根节点
+     */
+    static Node build(String content) {
+        return new Builder().build(content);
+    }
+
+    /**
+     * 构建只包含被 projection 选中的 key 的路径树
+     */
+    static Node build(String content, ParamProjection projection) {
+        return new Builder().build(content, projection);
+    }
+
+    /**
+     * 将 [start, end) 范围内的单个键值对挂到树上，不合法的键值对直接丢弃
+     */
+    private static void addPair(Node root, String content, int start, int end, ParamProjection projection,
+                                Builder builder) {
+        if (start >= end || !Character.isUpperCase(content.charAt(start))) {
+            return; // 过滤首字母小写的参数
+        }
+        int eq = indexOf(content, '=', start, end);
+        if (eq < 0 || eq == end - 1 || indexOf(content, '=', eq + 1, end) >= 0) {
+            return; // 不是 key=value 形式
+        }
+        if (projection != null && !projection.matches(content, start, eq)) {
+            return; // 未被选中的 key
+        }
+
+        // 先校验所有分段，避免在树上留下不完整的路径
+        int segStart = start;
+        boolean first = true;
+        while (segStart <= eq) {
+            int segEnd = segmentEnd(content, segStart, eq);
+            if (!isValidSegment(content, segStart, segEnd, first)) {
+                return;
+            }
+            first = false;
+            segStart = segEnd + 1;
+        }
+
+        Node node = root;
+        segStart = start;
+        while (segStart <= eq) {
+            int segEnd = segmentEnd(content, segStart, eq);
+            node = node.child(content.substring(segStart, segEnd), builder);
+            segStart = segEnd + 1;
+        }
+        if (node.valueStart < 0) {
+            node.valueStart = eq + 1;
+            node.valueEnd = end;
+        }
+    }
+
+    private static int indexOf(String content, char ch, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (content.charAt(i) == ch) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int segmentEnd(String content, int from, int limit) {
+        int dot = indexOf(content, '.', from, limit);
+        return dot < 0 ? limit : dot;
+    }
+
+    /**
+     * 分段校验：首字母大写的变量名，或者（非第一段时）整型下标
+     */
+    static boolean isValidSegment(CharSequence content, int start, int end, boolean first) {
+        if (start >= end) {
+            return false;
+        }
+        char c = content.charAt(start);
+        if (isDigit(c)) {
+            if (first) {
+                return false;
+            }
+            for (int i = start + 1; i < end; i++) {
+                if (!isDigit(content.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (c < 'A' || c > 'Z') {
+            return false;
+        }
+        for (int i = start + 1; i < end; i++) {
+            char ch = content.charAt(i);
+            if (!isDigit(ch) && !(ch >= 'a' && ch <= 'z') && !(ch >= 'A' && ch <= 'Z') && ch != '_' && ch != '$') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
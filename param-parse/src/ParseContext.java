@@ -0,0 +1,105 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 单次解析的上下文，把解析过程中的事件转发给 ParseListener，并按需收集到 ParseResult 中。
+ * 没有注册监听器且不需要收集时使用共享的 SILENT 实例，不产生任何额外分配。
+ */
+final class ParseContext {
+    private static final ParseContext SILENT = new ParseContext(null, ParseListener.NONE, false);
+
+    static ParseContext of(Class<?> rootType, ParseListener listener, boolean collect) {
+        if (listener == ParseListener.NONE && !collect) {
+            return SILENT;
+        }
+        return new ParseContext(rootType, listener, collect);
+    }
+
+    private final Class<?> rootType;
+    private final ParseListener listener;
+    private final boolean collect;
+    private final boolean active;
+    private List<ParseError> errors;
+
+    private ParseContext(Class<?> rootType, ParseListener listener, boolean collect) {
+        this.rootType = rootType;
+        this.listener = listener;
+        this.collect = collect;
+        this.active = listener != ParseListener.NONE || collect;
+    }
+
+    /**
+     * 解析开始的时间，没有监听器时不读取时钟
+     */
+    long start() {
+        return listener == ParseListener.NONE ? 0L : System.nanoTime();
+    }
+
+    void parsed(long start) {
+        if (listener != ParseListener.NONE) {
+            listener.onParsed(rootType, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 通过生成的解析器完成一次解析，生成的代码不报告未知参数、转换失败等问题
+     */
+    void parsedGenerated(long start) {
+        if (listener != ParseListener.NONE) {
+            listener.onParsedGenerated(rootType, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 是否有监听器或者需要收集问题
+     */
+    boolean active() {
+        return active;
+    }
+
+    void unknownKey(Class<?> type, CharSequence src, int start, int end) {
+        if (!active) return;
+        String paramName = src.subSequence(start, end).toString();
+        listener.onUnknownKey(rootType, paramName);
+        add(ParseError.Kind.UNKNOWN_KEY, type, paramName, null);
+    }
+
+    void skippedField(CharSequence src, int start, int end) {
+        if (listener != ParseListener.NONE) {
+            listener.onSkippedField(rootType, src.subSequence(start, end).toString());
+        }
+    }
+
+    void conversionFailure(FieldBinding binding, CharSequence src, int start, int end) {
+        if (!active) return;
+        String value = src.subSequence(start, end).toString();
+        listener.onConversionFailure(rootType, binding.paramName, value);
+        add(ParseError.Kind.CONVERSION_FAILURE, binding.field.getDeclaringClass(), binding.paramName, value);
+    }
+
+    void unsupportedType(FieldBinding binding, CharSequence src, int start, int end) {
+        if (!active) return;
+        String value = src.subSequence(start, end).toString();
+        listener.onConversionFailure(rootType, binding.paramName, value);
+        add(ParseError.Kind.UNSUPPORTED_TYPE, binding.field.getDeclaringClass(), binding.paramName, value);
+    }
+
+    void error(Class<?> type, Exception e) {
+        if (!active) return;
+        listener.onError(rootType, e);
+        add(ParseError.Kind.ERROR, type, null, e.getMessage());
+    }
+
+    List<ParseError> errors() {
+        return errors;
+    }
+
+    private void add(ParseError.Kind kind, Class<?> type, String paramName, String value) {
+        if (collect) {
+            if (errors == null) {
+                errors = new ArrayList<>(4);
+            }
+            errors.add(new ParseError(kind, type, paramName, value));
+        }
+    }
+}
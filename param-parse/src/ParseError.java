@@ -0,0 +1,64 @@
+/**
+ * 单次解析中出现的问题，由 ParamParseUtil.parseWithResult 收集到 ParseResult 中
+ */
+public final class ParseError {
+
+    public enum Kind {
+        // 参数名在对应的类中不存在
+        UNKNOWN_KEY,
+        // 值无法转换为字段类型
+        CONVERSION_FAILURE,
+        // 字段不是可以直接赋值的类型，比如 Metadata=xxx
+        UNSUPPORTED_TYPE,
+        // 嵌套类型无法实例化等其他错误
+        ERROR
+    }
+
+    private final Kind kind;
+    private final Class<?> type;
+    private final String paramName;
+    private final String value;
+
+    ParseError(Kind kind, Class<?> type, String paramName, String value) {
+        this.kind = kind;
+        this.type = type;
+        this.paramName = paramName;
+        this.value = value;
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    /**
+     * 出现问题的类，嵌套字段上的问题为嵌套类型本身
+     */
+    public Class<?> type() {
+        return type;
+    }
+
+    public String paramName() {
+        return paramName;
+    }
+
+    /**
+     * 对应的值，ERROR 时为异常信息
+     */
+    public String value() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case UNKNOWN_KEY:
+                return type + " has not field named: " + paramName;
+            case CONVERSION_FAILURE:
+                return "字符串 " + value + " 匹配错误: " + type.getName() + "." + paramName;
+            case UNSUPPORTED_TYPE:
+                return "未知类型 " + type.getName() + "." + paramName;
+            default:
+                return "error occur when parsing " + type.getName() + ": " + value;
+        }
+    }
+}
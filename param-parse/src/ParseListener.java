@@ -0,0 +1,54 @@
+/**
+ * 解析过程的监听器，替代原先直接输出到控制台的提示信息，通过 ParamParseUtil.setListener 注册：
+ *   1. 所有方法都有空的默认实现，只需要覆盖关心的事件；
+ *   2. type 为调用 parse 时传入的目标类，嵌套字段上的事件同样计入目标类；
+ *   3. 监听器会被多个线程同时调用，实现需要保证线程安全，且不应执行耗时操作。
+ *
+ * ParseMetrics 是按目标类统计次数与耗时的实现。
+ */
+public interface ParseListener {
+
+    /**
+     * 不做任何处理的监听器，也是默认值
+     */
+    ParseListener NONE = new ParseListener() {
+    };
+
+    /**
+     * 参数名在对应的类中不存在
+     */
+    default void onUnknownKey(Class<?> type, String paramName) {
+    }
+
+    /**
+     * 参数名对应的字段被 SkipMappingValueAnnotation 注解
+     */
+    default void onSkippedField(Class<?> type, String paramName) {
+    }
+
+    /**
+     * 值无法转换为字段类型，比如数值格式错误、超出范围，或者字段不是可以直接赋值的类型
+     */
+    default void onConversionFailure(Class<?> type, String paramName, String value) {
+    }
+
+    /**
+     * 解析过程中的其他错误，比如嵌套类型无法实例化
+     */
+    default void onError(Class<?> type, Throwable cause) {
+    }
+
+    /**
+     * 一次解析完成，elapsedNanos 为解析耗时
+     */
+    default void onParsed(Class<?> type, long elapsedNanos) {
+    }
+
+    /**
+     * 通过 QueryParsable 生成的解析器完成一次解析；生成的代码只依赖 JDK，不报告未知参数、转换失败等问题，
+     * 需要这些事件时使用 ParamParseUtil.parseWithResult（总是走反射实现）。默认按普通的一次解析处理
+     */
+    default void onParsedGenerated(Class<?> type, long elapsedNanos) {
+        onParsed(type, elapsedNanos);
+    }
+}
@@ -0,0 +1,151 @@
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按目标类统计解析情况的 ParseListener，计数器基于 LongAdder，多线程同时解析时不会互相竞争：
+ * > ParseMetrics metrics = new ParseMetrics();
+ * > ParamParseUtil.setListener(metrics);
+ * > metrics.counters(Pod.class).unknownKeys();
+ */
+public final class ParseMetrics implements ParseListener {
+
+    private final ConcurrentMap<Class<?>, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 获取目标类的计数器，没有解析过时返回全为 0 的计数器
+     */
+    public Counters counters(Class<?> type) {
+        Counters c = counters.get(type);
+        return c != null ? c : counters.computeIfAbsent(type, k -> new Counters());
+    }
+
+    /**
+     * 所有已经产生过事件的目标类
+     */
+    public Set<Class<?>> types() {
+        return Collections.unmodifiableSet(counters.keySet());
+    }
+
+    /**
+     * 清空所有计数
+     */
+    public void reset() {
+        counters.clear();
+    }
+
+    @Override
+    public void onUnknownKey(Class<?> type, String paramName) {
+        counters(type).unknownKeys.increment();
+    }
+
+    @Override
+    public void onSkippedField(Class<?> type, String paramName) {
+        counters(type).skippedFields.increment();
+    }
+
+    @Override
+    public void onConversionFailure(Class<?> type, String paramName, String value) {
+        counters(type).conversionFailures.increment();
+    }
+
+    @Override
+    public void onError(Class<?> type, Throwable cause) {
+        counters(type).errors.increment();
+    }
+
+    @Override
+    public void onParsed(Class<?> type, long elapsedNanos) {
+        Counters c = counters(type);
+        c.parses.increment();
+        c.totalNanos.add(elapsedNanos);
+        c.maxNanos.accumulate(elapsedNanos);
+    }
+
+    /**
+     * 生成的解析器不报告问题，单独计数，便于判断 unknownKeys 等计数覆盖了多少次解析
+     */
+    @Override
+    public void onParsedGenerated(Class<?> type, long elapsedNanos) {
+        onParsed(type, elapsedNanos);
+        counters(type).generatedParses.increment();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ParseMetrics{");
+        counters.forEach((type, c) -> sb.append(type.getName()).append('=').append(c).append(", "));
+        if (!counters.isEmpty()) {
+            sb.setLength(sb.length() - 2);
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * 单个目标类的计数器
+     */
+    public static final class Counters {
+        private final LongAdder parses = new LongAdder();
+        // parses 中通过生成的解析器完成的次数
+        private final LongAdder generatedParses = new LongAdder();
+        private final LongAdder unknownKeys = new LongAdder();
+        private final LongAdder skippedFields = new LongAdder();
+        private final LongAdder conversionFailures = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+        private Counters() {
+        }
+
+        public long parses() {
+            return parses.sum();
+        }
+
+        /**
+         * parses 中通过生成的解析器完成的次数，这些解析不计入 unknownKeys、conversionFailures 等问题计数
+         */
+        public long generatedParses() {
+            return generatedParses.sum();
+        }
+
+        public long unknownKeys() {
+            return unknownKeys.sum();
+        }
+
+        public long skippedFields() {
+            return skippedFields.sum();
+        }
+
+        public long conversionFailures() {
+            return conversionFailures.sum();
+        }
+
+        public long errors() {
+            return errors.sum();
+        }
+
+        public long totalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long maxNanos() {
+            return maxNanos.get();
+        }
+
+        public long averageNanos() {
+            long n = parses();
+            return n == 0 ? 0 : totalNanos() / n;
+        }
+
+        @Override
+        public String toString() {
+            return "{parses=" + parses() + ", generatedParses=" + generatedParses() + ", unknownKeys=" + unknownKeys() + ", skippedFields=" + skippedFields()
+                    + ", conversionFailures=" + conversionFailures() + ", errors=" + errors()
+                    + ", avgNanos=" + averageNanos() + ", maxNanos=" + maxNanos() + '}';
+        }
+    }
+}
@@ -0,0 +1,35 @@
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ParamParseUtil.parseWithResult 的返回值，包含解析得到的对象以及本次解析中出现的所有问题
+ */
+public final class ParseResult<T> {
+    private final T value;
+    private final List<ParseError> errors;
+
+    ParseResult(T value, List<ParseError> errors) {
+        this.value = value;
+        this.errors = errors == null ? Collections.emptyList() : Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * 解析得到的对象，出现问题的字段保持原值
+     */
+    public T value() {
+        return value;
+    }
+
+    public List<ParseError> errors() {
+        return errors;
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ParseResult{value=" + value + ", errors=" + errors + '}';
+    }
+}
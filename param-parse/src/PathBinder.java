@@ -0,0 +1,234 @@
+import java.lang.reflect.Array;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 逐个键值对绑定到目标对象上，供流式解析使用，不需要先构建完整的路径树：
+ *   1. 沿着 key 的每一段，通过 ClassBindingPlan 按字符区间定位字段；
+ *   2. 嵌套对象、List 及其元素不存在时实例化并保存；
+ *   3. 下标从 1 开始直接定位 List / 数组中的位置，长度不足时补齐，同一下标始终对应同一个元素；
+ *      超过 FieldBinding.MAX_INDEX 的下标作为转换失败通知 ParseContext 后丢弃。
+ *
+ * 过滤规则与 ParamTrie 一致，不合法的 key 直接丢弃，重复出现的 key 只绑定第一次；未知参数、转换失败等问题交给 ParseContext 处理。
+ * 指定 changes 时（ParamParseUtil.apply），值发生变化的 key 会被记录下来。
+ */
+final class PathBinder {
+    private final Object root;
+    private final ClassBindingPlan rootPlan;
+    private final ParseContext ctx;
+    // 值发生变化的 key，为 null 时不记录
+    private final Set<String> changes;
+    // 流式绑定过程中扩容过的数组 -> 实际使用的长度
+    private final Map<Object, GrownArray> grownArrays = new IdentityHashMap<>();
+    // 已经绑定过的 key，重复出现时跳过
+    private final Set<String> boundKeys = new HashSet<>();
+
+    PathBinder(Object root, ClassBindingPlan rootPlan, ParseContext ctx) {
+        this(root, rootPlan, ctx, null);
+    }
+
+    PathBinder(Object root, ClassBindingPlan rootPlan, ParseContext ctx, Set<String> changes) {
+        this.root = root;
+        this.rootPlan = rootPlan;
+        this.ctx = ctx;
+        this.changes = changes;
+    }
+
+    /**
+     * 绑定单个键值对，key 位于 [keyStart, keyEnd)，value 位于 [valueStart, valueEnd)
+     */
+    void bind(CharSequence src, int keyStart, int keyEnd, int valueStart, int valueEnd) {
+        if (keyStart >= keyEnd || valueStart >= valueEnd || !isValidKey(src, keyStart, keyEnd)
+                || !boundKeys.add(src.subSequence(keyStart, keyEnd).toString())) {
+            return;
+        }
+        try {
+            bindPath(src, keyStart, keyEnd, valueStart, valueEnd);
+        } catch (IllegalAccessException | InstantiationException e) {
+            ctx.error(rootPlan.type(), e);
+        }
+    }
+
+    private void bindPath(CharSequence src, int keyStart, int keyEnd, int valueStart, int valueEnd)
+            throws IllegalAccessException, InstantiationException {
+        Object target = root;
+        ClassBindingPlan plan = rootPlan;
+        int segStart = keyStart;
+        while (true) {
+            int segEnd = segmentEnd(src, segStart, keyEnd);
+            FieldBinding binding = plan.field(src, segStart, segEnd);
+            if (binding == null) {
+                String name = src.subSequence(segStart, segEnd).toString();
+                if (plan.isSkipped(name)) {
+                    ctx.skippedField(src, segStart, segEnd);
+                } else {
+                    ctx.unknownKey(plan.type(), src, segStart, segEnd);
+                }
+                return;
+            }
+            if (segEnd == keyEnd) {
+                Object before = changes == null ? null : binding.accessor.get(target);
+                ParamParseUtil.handleBasicField(target, binding, src, valueStart, valueEnd, ctx); // P
+                if (changes != null) {
+                    recordChange(before, binding.accessor.get(target), src, keyStart, keyEnd);
+                }
+                return;
+            }
+
+            segStart = segEnd + 1;
+            if (!binding.indexed()) {
+                // P.P.xxx：获取嵌套对象，没有则通过缓存的构造器实例化并保存
+                ClassBindingPlan nestedPlan = binding.nestedPlan();
+                Object fieldValObj = binding.accessor.get(target);
+                if (fieldValObj == null) {
+                    fieldValObj = nestedPlan.newInstance();
+                    binding.accessor.setObject(target, fieldValObj);
+                }
+                target = fieldValObj;
+                plan = nestedPlan;
+                continue;
+            }
+
+            // P.[num] / P.[num].xxx
+            segEnd = segmentEnd(src, segStart, keyEnd);
+            int slot = FieldBinding.slotOf(src, segStart, segEnd);
+            if (slot == FieldBinding.SLOT_OUT_OF_RANGE) {
+                ctx.conversionFailure(binding, src, segStart, segEnd); // 下标超过 MAX_INDEX，不分配
+                return;
+            }
+            if (slot < 0) {
+                return; // 不是 ${变量名}.${整型下标} 的形式，或者下标不合法
+            }
+
+            if (binding.array) {
+                if (segEnd == keyEnd) {
+                    Object before = changes == null ? null : elementAt(binding.accessor.get(target), slot);
+                    setArrayElement(target, binding, slot, src, valueStart, valueEnd);
+                    if (changes != null) {
+                        recordChange(before, elementAt(binding.accessor.get(target), slot), src, keyStart, keyEnd);
+                    }
+                }
+                return;
+            }
+
+            List listFieldVal = binding.listOfSize(target, slot + 1);
+            if (segEnd == keyEnd) {
+                // 泛型参数是基本数据类型，直接放到对应位置，同一下标重复出现时覆盖
+                Object after = ParamParseUtil.getFieldValByType(binding.elementType,
+                        src.subSequence(valueStart, valueEnd).toString(), binding, ctx);
+                Object before = listFieldVal.set(slot, after);
+                if (changes != null) {
+                    recordChange(before, after, src, keyStart, keyEnd);
+                }
+                return;
+            }
+            if (binding.elementClass == null) {
+                return;
+            }
+
+            ClassBindingPlan elementPlan = binding.elementPlan();
+            Object element = listFieldVal.get(slot);
+            if (element == null) {
+                element = elementPlan.newInstance();
+                listFieldVal.set(slot, element);
+            }
+            target = element;
+            plan = elementPlan;
+            segStart = segEnd + 1;
+        }
+    }
+
+    /**
+     * 流式绑定时无法预先知道最大下标，数组按 1.5 倍扩容，并记录实际使用的长度，finish 时截断
+     */
+    private void setArrayElement(Object target, FieldBinding binding, int slot,
+                                 CharSequence src, int valueStart, int valueEnd) {
+        Object arr = binding.accessor.get(target);
+        GrownArray grown = arr == null ? null : grownArrays.get(arr);
+        int length = arr == null ? 0 : Array.getLength(arr);
+        if (slot >= length) {
+            int used = grown == null ? length : grown.used;
+            arr = binding.arrayOfLength(target, Math.max(slot + 1, length + (length >> 1)));
+            if (grown == null) {
+                grown = new GrownArray(target, binding, used);
+            } else {
+                grownArrays.remove(grown.array);
+            }
+            grown.array = arr;
+            grownArrays.put(arr, grown);
+        }
+        if (grown != null) {
+            grown.used = Math.max(grown.used, slot + 1);
+        }
+        if (!binding.setArrayElement(arr, slot, src, valueStart, valueEnd)) {
+            ctx.conversionFailure(binding, src, valueStart, valueEnd);
+        }
+    }
+
+    private void recordChange(Object before, Object after, CharSequence src, int keyStart, int keyEnd) {
+        if (!Objects.equals(before, after)) {
+            changes.add(src.subSequence(keyStart, keyEnd).toString());
+        }
+    }
+
+    /**
+     * 数组 slot 位置的值，数组不存在或长度不足时返回 null
+     */
+    private static Object elementAt(Object arr, int slot) {
+        return arr == null || slot >= Array.getLength(arr) ? null : Array.get(arr, slot);
+    }
+
+    /**
+     * 所有键值对绑定完成后调用，将扩容过的数组截断为最大下标对应的长度
+     */
+    void finish() {
+        for (GrownArray grown : grownArrays.values()) {
+            if (Array.getLength(grown.array) > grown.used) {
+                Object trimmed = Array.newInstance(grown.array.getClass().getComponentType(), grown.used);
+                System.arraycopy(grown.array, 0, trimmed, 0, grown.used);
+                grown.binding.accessor.setObject(grown.owner, trimmed);
+            }
+        }
+        grownArrays.clear();
+    }
+
+    private static final class GrownArray {
+        final Object owner;
+        final FieldBinding binding;
+        Object array;
+        int used;
+
+        GrownArray(Object owner, FieldBinding binding, int used) {
+            this.owner = owner;
+            this.binding = binding;
+            this.used = used;
+        }
+    }
+
+    private static boolean isValidKey(CharSequence src, int start, int end) {
+        boolean first = true;
+        int segStart = start;
+        while (segStart <= end) {
+            int segEnd = segmentEnd(src, segStart, end);
+            if (!ParamTrie.isValidSegment(src, segStart, segEnd, first)) {
+                return false;
+            }
+            first = false;
+            segStart = segEnd + 1;
+        }
+        return true;
+    }
+
+    private static int segmentEnd(CharSequence src, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (src.charAt(i) == '.') {
+                return i;
+            }
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,11 @@
+import java.lang.annotation.*;
+
+/**
+ * 标记需要在编译期生成解析器的类，QueryParsableProcessor 会为其生成同包下的 ${类名}ParamParser，
+ * ParamParseUtil.parse 存在生成的解析器时直接调用，否则使用反射解析
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface QueryParsable {
+}
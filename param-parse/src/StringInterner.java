@@ -0,0 +1,41 @@
+/**
+ * LowCardinality 字段使用的有界 String 缓存：
+ *   1. 直接映射的定长数组，长度为不小于 maxSize 的 2 的幂，hash 与 String.hashCode 一致；
+ *   2. 按字符区间查找，命中时直接返回缓存的实例，不截取中间 String；
+ *   3. 未命中时创建 String 并覆盖对应位置，多线程并发写入只会导致少量重复实例，不需要加锁。
+ */
+final class StringInterner {
+    private final String[] table;
+
+    StringInterner(int maxSize) {
+        int capacity = Integer.highestOneBit(Math.max(maxSize, 2) - 1) << 1;
+        this.table = new String[capacity];
+    }
+
+    String intern(CharSequence src, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + src.charAt(i);
+        }
+        int i = (hash ^ (hash >>> 16)) & (table.length - 1);
+        String cached = table[i];
+        if (cached != null && cached.hashCode() == hash && contentEquals(cached, src, start, end)) {
+            return cached;
+        }
+        String value = src.subSequence(start, end).toString();
+        table[i] = value;
+        return value;
+    }
+
+    private static boolean contentEquals(String cached, CharSequence src, int start, int end) {
+        if (cached.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < cached.length(); i++) {
+            if (cached.charAt(i) != src.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}